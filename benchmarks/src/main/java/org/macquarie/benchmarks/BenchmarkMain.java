@@ -0,0 +1,54 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <p>Entry point for the benchmark jar. This accepts all of the usual JMH 
+ * command line options (try <code>-h</code>), but always adds the GC profiler
+ * so that each result is reported along with the number of bytes allocated 
+ * per operation.</p>
+ * 
+ * <p>For example, to run just the 4:4 topology for the lock free buffer:</p>
+ * 
+ * <pre>java -jar benchmarks/target/benchmarks.jar "BufferTopology.p4c4" -p impl=mpmc</pre>
+ * 
+ * @author mq-soft-tech
+ *
+ */
+public class BenchmarkMain {
+
+	public static void main(String[] pArgs) throws Exception {
+		Options vOptions = new OptionsBuilder()
+				.parent(new CommandLineOptions(pArgs))
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(vOptions).run();
+	}
+}
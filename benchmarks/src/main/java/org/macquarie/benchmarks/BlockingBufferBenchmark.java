@@ -0,0 +1,150 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.macquarie.prodcons.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Timeout;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Measures the blocking {@link Buffer#put(Object)} and {@link Buffer#get()}
+ * methods of the buffers which may be shared by many producers and many
+ * consumers, in the same four topologies as {@link BufferTopologyBenchmark}.
+ * Here a thread which finds the buffer full (or empty) waits in the way the
+ * buffer itself chooses, rather than spinning on 
+ * {@link Buffer#offer(Object)} (or {@link Buffer#poll()}), so these results 
+ * include the cost of putting threads to sleep and waking them up again.</p>
+ * 
+ * <p>When an iteration ends some threads are usually still blocked, waiting
+ * for partners which have already stopped. JMH interrupts them once the 
+ * iteration's {@link Timeout} has passed, and ignores the resulting 
+ * {@link InterruptedException}, so we keep that timeout short.</p>
+ * 
+ * @author mq-soft-tech
+ *
+ */
+@State(Scope.Group)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Timeout(time = 2)
+@Fork(1)
+public class BlockingBufferBenchmark {
+
+	@Param({"bounded", "split", "mpmc"})
+	public String impl;
+	
+	@Param({"3", "64", "1024"})
+	public int capacity;
+	
+	private Buffer<Integer> mBuffer;
+	
+	/**
+	 * Start each iteration with a fresh, empty buffer.
+	 */
+	@Setup(Level.Iteration)
+	public void setUp() {
+		mBuffer = Buffers.create(impl, capacity);
+	}
+	
+	// One producer, one consumer.
+	
+	@Benchmark
+	@Group("p1c1")
+	@GroupThreads(1)
+	public void p1c1Put() throws InterruptedException {
+		mBuffer.put(Buffers.VALUE);
+	}
+	
+	@Benchmark
+	@Group("p1c1")
+	@GroupThreads(1)
+	public Integer p1c1Get() throws InterruptedException {
+		return mBuffer.get();
+	}
+	
+	// Four producers, one consumer.
+	
+	@Benchmark
+	@Group("p4c1")
+	@GroupThreads(4)
+	public void p4c1Put() throws InterruptedException {
+		mBuffer.put(Buffers.VALUE);
+	}
+	
+	@Benchmark
+	@Group("p4c1")
+	@GroupThreads(1)
+	public Integer p4c1Get() throws InterruptedException {
+		return mBuffer.get();
+	}
+	
+	// One producer, four consumers.
+	
+	@Benchmark
+	@Group("p1c4")
+	@GroupThreads(1)
+	public void p1c4Put() throws InterruptedException {
+		mBuffer.put(Buffers.VALUE);
+	}
+	
+	@Benchmark
+	@Group("p1c4")
+	@GroupThreads(4)
+	public Integer p1c4Get() throws InterruptedException {
+		return mBuffer.get();
+	}
+	
+	// Four producers, four consumers.
+	
+	@Benchmark
+	@Group("p4c4")
+	@GroupThreads(4)
+	public void p4c4Put() throws InterruptedException {
+		mBuffer.put(Buffers.VALUE);
+	}
+	
+	@Benchmark
+	@Group("p4c4")
+	@GroupThreads(4)
+	public Integer p4c4Get() throws InterruptedException {
+		return mBuffer.get();
+	}
+}
@@ -0,0 +1,141 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.macquarie.prodcons.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+/**
+ * <p>Measures the buffers which may be shared by many producers and many
+ * consumers, in each of four producer:consumer topologies: 1:1, 4:1, 1:4
+ * and 4:4. Each JMH group shares one buffer, and throughput and latency
+ * are reported separately for the producing and the consuming threads.</p>
+ * 
+ * @author mq-soft-tech
+ *
+ */
+@State(Scope.Group)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BufferTopologyBenchmark {
+
+	@Param({"bounded", "split", "mpmc"})
+	public String impl;
+	
+	@Param({"3", "64", "1024"})
+	public int capacity;
+	
+	private Buffer<Integer> mBuffer;
+	
+	/**
+	 * Start each iteration with a fresh, empty buffer.
+	 */
+	@Setup(Level.Iteration)
+	public void setUp() {
+		mBuffer = Buffers.create(impl, capacity);
+	}
+	
+	// One producer, one consumer.
+	
+	@Benchmark
+	@Group("p1c1")
+	@GroupThreads(1)
+	public boolean p1c1Put(Control pControl) {
+		return Buffers.put(mBuffer, pControl);
+	}
+	
+	@Benchmark
+	@Group("p1c1")
+	@GroupThreads(1)
+	public Integer p1c1Get(Control pControl) {
+		return Buffers.get(mBuffer, pControl);
+	}
+	
+	// Four producers, one consumer.
+	
+	@Benchmark
+	@Group("p4c1")
+	@GroupThreads(4)
+	public boolean p4c1Put(Control pControl) {
+		return Buffers.put(mBuffer, pControl);
+	}
+	
+	@Benchmark
+	@Group("p4c1")
+	@GroupThreads(1)
+	public Integer p4c1Get(Control pControl) {
+		return Buffers.get(mBuffer, pControl);
+	}
+	
+	// One producer, four consumers.
+	
+	@Benchmark
+	@Group("p1c4")
+	@GroupThreads(1)
+	public boolean p1c4Put(Control pControl) {
+		return Buffers.put(mBuffer, pControl);
+	}
+	
+	@Benchmark
+	@Group("p1c4")
+	@GroupThreads(4)
+	public Integer p1c4Get(Control pControl) {
+		return Buffers.get(mBuffer, pControl);
+	}
+	
+	// Four producers, four consumers.
+	
+	@Benchmark
+	@Group("p4c4")
+	@GroupThreads(4)
+	public boolean p4c4Put(Control pControl) {
+		return Buffers.put(mBuffer, pControl);
+	}
+	
+	@Benchmark
+	@Group("p4c4")
+	@GroupThreads(4)
+	public Integer p4c4Get(Control pControl) {
+		return Buffers.get(mBuffer, pControl);
+	}
+}
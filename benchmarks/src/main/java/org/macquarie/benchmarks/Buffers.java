@@ -0,0 +1,155 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.benchmarks;
+
+import org.macquarie.prodcons.BoundedBuffer;
+import org.macquarie.prodcons.Buffer;
+import org.macquarie.prodcons.MpmcBoundedBuffer;
+import org.macquarie.prodcons.SpscBoundedBuffer;
+import org.macquarie.prodcons.SplitConditionBoundedBuffer;
+import org.openjdk.jmh.infra.Control;
+
+/**
+ * Helpers shared by the buffer benchmarks.
+ * 
+ * <p>Most of the benchmarks move values using the non-blocking 
+ * {@link Buffer#offer(Object)} and {@link Buffer#poll()} methods, retrying until
+ * they succeed. A thread blocked in {@link Buffer#put(Object)} or 
+ * {@link Buffer#get()} when JMH ends an iteration would never return, since its
+ * partner threads have stopped, so instead each retry loop gives up once JMH 
+ * tells it that measurement has stopped. {@link BlockingBufferBenchmark} 
+ * measures the blocking methods themselves.</p>
+ * 
+ * @author mq-soft-tech
+ *
+ */
+final class Buffers {
+	
+	/**
+	 * The value passed through the buffers. This is boxed once, up front, so
+	 * that the allocation profiler only sees allocations made by the buffers.
+	 */
+	static final Integer VALUE = 42;
+	
+	private Buffers() {
+		// Not instantiable.
+	}
+	
+	/**
+	 * Make a buffer of a named implementation.
+	 * 
+	 * @param pImpl the implementation, one of <code>bounded</code>, 
+	 *        <code>split</code>, <code>mpmc</code> or <code>spsc</code>.
+	 * @param pCapacity the capacity of the buffer.
+	 * @return the new buffer.
+	 */
+	static Buffer<Integer> create(String pImpl, int pCapacity) {
+		switch (pImpl) {
+		case "bounded":
+			return new BoundedBuffer<Integer>(pCapacity);
+		case "split":
+			return new SplitConditionBoundedBuffer<Integer>(pCapacity);
+		case "mpmc":
+			return new MpmcBoundedBuffer<Integer>(pCapacity);
+		case "spsc":
+			return new SpscBoundedBuffer<Integer>(pCapacity);
+		default:
+			throw new IllegalArgumentException("Unknown buffer implementation: " + pImpl);
+		}
+	}
+	
+	/**
+	 * Make an instance of the deliberately broken 
+	 * {@link org.macquarie.prodcons_unsafe.BoundedBuffer}, which has a fixed
+	 * capacity of 3.
+	 * 
+	 * @return the new buffer.
+	 */
+	static Buffer<Integer> createUnsafe() {
+		return new UnsafeBuffer();
+	}
+	
+	/**
+	 * Put {@link #VALUE} into a buffer, retrying until it succeeds or until
+	 * measurement stops.
+	 * 
+	 * @return true if the value was put.
+	 */
+	static boolean put(Buffer<Integer> pBuffer, Control pControl) {
+		while (!pBuffer.offer(VALUE)) {
+			if (pControl.stopMeasurement)
+				return false;
+			Thread.onSpinWait();
+		}
+		return true;
+	}
+	
+	/**
+	 * Take a value from a buffer, retrying until it succeeds or until 
+	 * measurement stops.
+	 * 
+	 * @return the value taken, or <code>null</code> if measurement stopped first.
+	 */
+	static Integer get(Buffer<Integer> pBuffer, Control pControl) {
+		Integer vValue;
+		while ((vValue = pBuffer.poll()) == null) {
+			if (pControl.stopMeasurement)
+				return null;
+			Thread.onSpinWait();
+		}
+		return vValue;
+	}
+	
+	/**
+	 * Adapts the deliberately broken {@link org.macquarie.prodcons_unsafe.BoundedBuffer}
+	 * to the {@link Buffer} interface, so that it can be measured as a baseline. 
+	 * Expect it to lose values, or to wedge itself so that no more values can
+	 * pass through it at all.
+	 */
+	private static final class UnsafeBuffer implements Buffer<Integer> {
+		
+		private final org.macquarie.prodcons_unsafe.BoundedBuffer<Integer> mBuffer =
+				new org.macquarie.prodcons_unsafe.BoundedBuffer<Integer>();
+
+		@Override
+		public void put(Integer pValue) throws InterruptedException {
+			mBuffer.put(pValue);
+		}
+
+		@Override
+		public Integer get() throws InterruptedException {
+			return mBuffer.get();
+		}
+
+		@Override
+		public boolean offer(Integer pValue) {
+			return mBuffer.offer(pValue);
+		}
+
+		@Override
+		public Integer poll() {
+			return mBuffer.poll();
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.macquarie.prodcons.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+/**
+ * <p>Measures every buffer in the 1:1 topology, including the lock free
+ * {@link org.macquarie.prodcons.SpscBoundedBuffer}, which is only correct with
+ * a single producer and a single consumer. The unsynchronised baseline, whose
+ * capacity is fixed, is measured separately by {@link UnsafeBufferBenchmark}.</p>
+ * 
+ * @author mq-soft-tech
+ *
+ */
+@State(Scope.Group)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SingleProducerBenchmark {
+
+	@Param({"bounded", "split", "mpmc", "spsc"})
+	public String impl;
+	
+	@Param({"3", "64", "1024"})
+	public int capacity;
+	
+	private Buffer<Integer> mBuffer;
+	
+	/**
+	 * Start each iteration with a fresh, empty buffer.
+	 */
+	@Setup(Level.Iteration)
+	public void setUp() {
+		mBuffer = Buffers.create(impl, capacity);
+	}
+	
+	@Benchmark
+	@Group("p1c1")
+	@GroupThreads(1)
+	public boolean put(Control pControl) {
+		return Buffers.put(mBuffer, pControl);
+	}
+	
+	@Benchmark
+	@Group("p1c1")
+	@GroupThreads(1)
+	public Integer get(Control pControl) {
+		return Buffers.get(mBuffer, pControl);
+	}
+}
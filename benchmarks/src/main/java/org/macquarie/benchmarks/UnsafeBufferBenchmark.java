@@ -0,0 +1,86 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.macquarie.prodcons.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+/**
+ * <p>Measures the unsynchronised {@link org.macquarie.prodcons_unsafe.BoundedBuffer}
+ * in the 1:1 topology, as a (broken) baseline for {@link SingleProducerBenchmark}.
+ * Expect it to lose values, or to wedge itself so that no more values can pass
+ * through it at all. Its capacity is fixed at 3, so unlike the other benchmarks
+ * this one has no <code>capacity</code> parameter; compare it with the other 
+ * buffers' results for <code>capacity=3</code>.</p>
+ * 
+ * @author mq-soft-tech
+ *
+ */
+@State(Scope.Group)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnsafeBufferBenchmark {
+
+	private Buffer<Integer> mBuffer;
+	
+	/**
+	 * Start each iteration with a fresh, empty buffer.
+	 */
+	@Setup(Level.Iteration)
+	public void setUp() {
+		mBuffer = Buffers.createUnsafe();
+	}
+	
+	@Benchmark
+	@Group("p1c1")
+	@GroupThreads(1)
+	public boolean put(Control pControl) {
+		return Buffers.put(mBuffer, pControl);
+	}
+	
+	@Benchmark
+	@Group("p1c1")
+	@GroupThreads(1)
+	public Integer get(Control pControl) {
+		return Buffers.get(mBuffer, pControl);
+	}
+}
@@ -23,59 +23,176 @@
 
 package org.macquarie.prodcons;
 
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * A thread safe bounded buffer class - which uses a very simple
  * implementation which treats a fixed size array of values as
  * a circular buffer.
  * 
- * Demonstrates the use of synchronisation to ensure consistency 
- * and {@link #wait()} and {@link #notifyAll()} methods to handle 
- * overflow and underflow situations.
+ * Demonstrates the use of a lock to ensure consistency and of a 
+ * condition's {@link Condition#await()} and {@link Condition#signalAll()}
+ * methods to handle overflow and underflow situations.
+ * 
+ * These play exactly the same roles as the <code>synchronized</code> keyword
+ * and the {@link #wait()} and {@link #notifyAll()} methods, which this class
+ * used to use. We use an explicit {@link ReentrantLock} instead so that the
+ * buffer works well with virtual threads. A virtual thread which waits inside
+ * a <code>synchronized</code> block can't let go of the platform (carrier)
+ * thread it is running on, so a few blocked virtual threads could hold up
+ * all of the others. One waiting on a {@link Condition} lets go straight away.
  * 
  * Buffers of this type are generic, so can hold values of any
  * (non-primitive) type.
  * 
+ * Each buffer keeps a set of {@link BufferStatistics} which record how
+ * much it has been used and how often threads have had to wait for it. 
+ * Use {@link #getStatistics()} to see how a buffer is coping.
+ * 
  * See lecture notes for more information. Also it is worth looking 
  * up Producer-Consumer on Wikipedia.
  * 
  * @author Dominic Verity
  *
  */
-public class BoundedBuffer<T> {
+public class BoundedBuffer<T> implements Buffer<T> {
 
 	// Static data members (constants)
 	
 	/**
-	 * Maximum capacity of our buffer, this is intentionally quite small so
+	 * Default capacity of our buffer, this is intentionally quite small so
 	 * to ensure that underflows and overflows occur relatively frequently.
 	 */
-	private final static int CAPACITY = 3;
+	public final static int DEFAULT_CAPACITY = 3;
+	
+	/**
+	 * Largest array we are prepared to allocate, this must be a power of two.
+	 */
+	private final static int MAX_ARRAY_LENGTH = 1 << 30;
 	
 	// Data members (instance variables)
 
 	/**
-	 * The array of values stored in this buffer.
+	 * The array of values stored in this buffer. Its length is always a power
+	 * of two, which allows us to compute the index of a position in the buffer
+	 * by masking rather than by using the (much slower) <code>%</code> operator.
 	 */
 	private T[] mValues;
 	
 	/**
-	 * Index of the first free location in the buffer.
+	 * Mask used to convert a position in the buffer into an index into 
+	 * <code>mValues</code>, always equal to <code>mValues.length - 1</code>.
+	 */
+	private int mMask;
+	
+	/**
+	 * The number of values the buffer may currently hold. This may be smaller
+	 * than the length of <code>mValues</code>, which is rounded up to a power of two.
+	 */
+	private int mCapacity;
+	
+	/**
+	 * True if this buffer grows and shrinks with demand.
+	 */
+	private final boolean mElastic;
+	
+	/**
+	 * In elastic mode, the length of the array the buffer started with. We
+	 * never shrink the buffer below this.
+	 */
+	private final int mMinLength;
+	
+	/**
+	 * In elastic mode, the largest number of values the buffer may grow to hold.
+	 */
+	private final int mMaxCapacity;
+	
+	/**
+	 * Position of the first free location in the buffer. Positions just
+	 * keep counting up, and are converted into array indices by masking
+	 * with <code>mMask</code>. Even when they overflow the difference
+	 * <code>mNext - mHead</code> is still the number of values in the buffer.
 	 */
 	private int mNext;
 	
 	/**
-	 * Index of value at head of the queue.
+	 * Position of value at head of the queue.
 	 */
 	private int mHead;
 	
+	/**
+	 * The lock which guards all of the state of this buffer.
+	 */
+	private final ReentrantLock mLock = new ReentrantLock();
+	
+	/**
+	 * Threads wait on this condition until the contents of the buffer change.
+	 */
+	private final Condition mChanged = mLock.newCondition();
+	
+	/**
+	 * Statistics describing the use of this buffer.
+	 */
+	private final BufferStatistics mStatistics = new BufferStatistics();
+	
 	// Constructors
 	
 	/**
-	 * Default constructor - makes an empty buffer.
+	 * Default constructor - makes an empty buffer which can hold
+	 * {@link #DEFAULT_CAPACITY} values.
 	 */
-	@SuppressWarnings("unchecked")
 	public BoundedBuffer () {
-		mValues = (T[]) new Object[CAPACITY];
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Make an empty buffer with a fixed capacity.
+	 * 
+	 * @param pCapacity the number of values the buffer can hold.
+	 */
+	public BoundedBuffer (int pCapacity) {
+		this(pCapacity, pCapacity, false);
+	}
+	
+	/**
+	 * Make an empty elastic buffer. Whenever a producer finds the buffer full
+	 * it is doubled in size, up to the ceiling given by <code>pMaxCapacity</code>,
+	 * rather than making that producer wait. When the backlog drains away, so that
+	 * the buffer is no more than a quarter full, it is halved in size again, but 
+	 * never to less than <code>pInitialCapacity</code>. 
+	 * 
+	 * @param pInitialCapacity the number of values the buffer can hold initially,
+	 *        which is rounded up to a power of two.
+	 * @param pMaxCapacity the largest number of values the buffer may grow to hold.
+	 */
+	public BoundedBuffer (int pInitialCapacity, int pMaxCapacity) {
+		this(pInitialCapacity, pMaxCapacity, true);
+	}
+	
+	/**
+	 * Common constructor code.
+	 */
+	@SuppressWarnings("unchecked")
+	private BoundedBuffer (int pCapacity, int pMaxCapacity, boolean pElastic) {
+		if (pCapacity < 1 || pCapacity > MAX_ARRAY_LENGTH)
+			throw new IllegalArgumentException("Capacity out of range: " + pCapacity);
+		if (pMaxCapacity < pCapacity || pMaxCapacity > MAX_ARRAY_LENGTH)
+			throw new IllegalArgumentException("Maximum capacity out of range: " + pMaxCapacity);
+		
+		int vLength = 1;
+		while (vLength < pCapacity)
+			vLength <<= 1;
+		
+		mValues = (T[]) new Object[vLength];
+		mMask = vLength - 1;
+		mCapacity = pElastic ? Math.min(vLength, pMaxCapacity) : pCapacity;
+		mElastic = pElastic;
+		mMinLength = vLength;
+		mMaxCapacity = pMaxCapacity;
 		mNext = 0;
 		mHead = 0;
 	}
@@ -83,63 +200,519 @@ public class BoundedBuffer<T> {
 	// Public methods
 	
 	/**
-	 * Add a new value to the queue.
+	 * @return the number of values the buffer can currently hold. 
 	 */
-	public synchronized void put(T pValue) throws InterruptedException {
-		// First check to see if there is space in the buffer.
-		while (mNext - mHead >= CAPACITY) {
-			System.out.println("Waiting for some buffer space!");
-			wait();		// If there is no space then wait in the wait
-						// queue of this buffer object.
+	public int capacity() {
+		mLock.lock();
+		try {
+			return mCapacity;
+		} finally {
+			mLock.unlock();
 		}
+	}
+	
+	/**
+	 * @return the number of values currently held in the buffer.
+	 */
+	public int size() {
+		mLock.lock();
+		try {
+			return mNext - mHead;
+		} finally {
+			mLock.unlock();
+		}
+	}
+	
+	/**
+	 * Get the current statistics for this buffer. This doesn't acquire the 
+	 * buffer's lock, so it may be called as often as needed without slowing
+	 * down the threads using the buffer.
+	 * 
+	 * @return a snapshot of this buffer's statistics.
+	 */
+	public BufferStatistics.Snapshot getStatistics() {
+		return mStatistics.snapshot();
+	}
+	
+	/**
+	 * Add a new value to the queue.
+	 */
+	@Override
+	public void put(T pValue) throws InterruptedException {
+		mLock.lockInterruptibly();
+		try {
+			// First wait until there is space in the buffer.
+			awaitSpace();
+		
+			// Now we know there is space so add the new value.
+			mValues[mNext & mMask] = pValue;
+		
+			// And update next pointer.
+			mNext++;
+			mStatistics.recordPuts(1);
+			mStatistics.recordOccupancy(mNext - mHead);
 		
-		// Now we know there is space so add the new value.
-		mValues[mNext % CAPACITY] = pValue;
+			// Finally signal all waiting threads. This will wake each thread in turn,
+			// and if one of those is waiting for a value to be placed into the buffer
+			// it will proceed.
 		
-		// And update next pointer.
-		mNext++;
+			// We could optimise this by only calling signalAll() when the buffer was
+			// previously empty.
+			mChanged.signalAll();
+		} finally {
+			mLock.unlock();
+		}
+	}
+	
+	/**
+	 * Add a new value to the queue if there is space for it, without waiting.
+	 * 
+	 * @param pValue the value to add.
+	 * @return true if the value was added and false if the buffer was full.
+	 */
+	@Override
+	public boolean offer(T pValue) {
+		mLock.lock();
+		try {
+			if (mNext - mHead >= mCapacity && !(mElastic && grow()))
+				return false;
 		
-		// Finally notify all waiting threads. This will wake each thread in turn,
-		// and if one of those is waiting for a value to be placed into the buffer
-		// it will proceed.
+			mValues[mNext++ & mMask] = pValue;
+			mStatistics.recordPuts(1);
+			mStatistics.recordOccupancy(mNext - mHead);
+			mChanged.signalAll();
+			return true;
+		} finally {
+			mLock.unlock();
+		}
+	}
+	
+	/**
+	 * Add a new value to the queue, waiting no longer than a given time for
+	 * space to become available.
+	 * 
+	 * @param pValue the value to add.
+	 * @param pTimeout the longest time to wait.
+	 * @param pUnit the unit <code>pTimeout</code> is measured in.
+	 * @return true if the value was added and false if the time ran out first.
+	 */
+	public boolean offer(T pValue, long pTimeout, TimeUnit pUnit) 
+			throws InterruptedException {
+		mLock.lockInterruptibly();
+		try {
+			if (!awaitSpace(pUnit.toNanos(pTimeout)))
+				return false;
+		
+			mValues[mNext++ & mMask] = pValue;
+			mStatistics.recordPuts(1);
+			mStatistics.recordOccupancy(mNext - mHead);
+			mChanged.signalAll();
+			return true;
+		} finally {
+			mLock.unlock();
+		}
+	}
+	
+	/**
+	 * Add a sequence of values, taken from an array, to the queue. Rather
+	 * than acquiring the lock and notifying waiting threads once for each
+	 * value, as {@link #put(Object)} would, this adds as many values as will
+	 * fit each time it finds space in the buffer and then notifies waiting 
+	 * threads just once for the whole batch.
+	 * 
+	 * If the calling thread is interrupted while waiting for space then some 
+	 * of the values may already have been added to the queue.
+	 * 
+	 * @param pValues the array containing the values to add.
+	 * @param pOffset the index in <code>pValues</code> of the first value to add.
+	 * @param pLength the number of values to add.
+	 */
+	public void putAll(T[] pValues, int pOffset, int pLength) 
+			throws InterruptedException {
+		mLock.lockInterruptibly();
+		try {
+			if (pOffset < 0 || pLength < 0 || pOffset > pValues.length - pLength)
+				throw new IndexOutOfBoundsException(
+						"Offset " + pOffset + " and length " + pLength + 
+						" out of range for array of length " + pValues.length);
 		
-		// We could optimise this by only calling notifyAll() when the buffer was
-		// previously empty.
-		notifyAll();
+			int vEnd = pOffset + pLength;
+			while (pOffset < vEnd) {
+				awaitSpace();
+			
+				// Add as many values as will fit, then wake the consumers.
+				int vCount = Math.min(vEnd - pOffset, mCapacity - (mNext - mHead));
+				for (int i = 0; i < vCount; i++)
+					mValues[mNext++ & mMask] = pValues[pOffset++];
+				mStatistics.recordPuts(vCount);
+				mStatistics.recordOccupancy(mNext - mHead);
+				mChanged.signalAll();
+			}
+		} finally {
+			mLock.unlock();
+		}
+	}
+	
+	/**
+	 * Add all of the values in a collection to the queue, in the order they
+	 * are returned by its iterator. Like {@link #putAll(Object[], int, int)}
+	 * this adds as many values as will fit at a time, notifying waiting
+	 * threads once per batch.
+	 * 
+	 * If the calling thread is interrupted while waiting for space then some 
+	 * of the values may already have been added to the queue.
+	 * 
+	 * @param pValues the collection of values to add.
+	 */
+	public void putAll(Collection<? extends T> pValues) 
+			throws InterruptedException {
+		mLock.lockInterruptibly();
+		try {
+			Iterator<? extends T> vIterator = pValues.iterator();
+			while (vIterator.hasNext()) {
+				awaitSpace();
+			
+				// Add as many values as will fit, then wake the consumers.
+				int vCount = 0;
+				while (vIterator.hasNext() && mNext - mHead < mCapacity) {
+					mValues[mNext++ & mMask] = vIterator.next();
+					vCount++;
+				}
+				mStatistics.recordPuts(vCount);
+				mStatistics.recordOccupancy(mNext - mHead);
+				mChanged.signalAll();
+			}
+		} finally {
+			mLock.unlock();
+		}
 	}
 	
 	/**
 	 * Remove a value from the queue and return it.
 	 */
-	public synchronized T get() throws InterruptedException {
-		// First check to see if there is anything in the buffer.
-		while (mNext - mHead <= 0) {
-			System.out.println("Waiting for a value to become available!");
-			wait();		// If there is nothing there then wait in the wait
-						// queue of this buffer object
+	@Override
+	public T get() throws InterruptedException {
+		mLock.lockInterruptibly();
+		try {
+			// First wait until there is something in the buffer.
+			awaitValue();
+		
+			// Now we know that a value is present, so take the head value.
+			T vResult = take();
+		
+			// An elastic buffer gives back memory once its backlog has drained.
+			if (mElastic)
+				shrink();
+		
+			// Finally signal all waiting threads. This will wake each thread in turn,
+			// and if one of those is waiting for a space to become available in the buffer
+			// it will proceed.
+		
+			// We could optimise this by only calling signalAll() when the buffer was
+			// previously full.
+			mChanged.signalAll();
+		
+		
+			// And return the retrieved value.
+			return vResult;
+		} finally {
+			mLock.unlock();
 		}
+	}
+	
+	/**
+	 * Remove a value from the queue and return it if there is one, without 
+	 * waiting. Because <code>null</code> is returned when the buffer is empty,
+	 * <code>null</code> values shouldn't be put into buffers used in this way.
+	 * 
+	 * @return the value removed, or <code>null</code> if the buffer was empty.
+	 */
+	@Override
+	public T poll() {
+		mLock.lock();
+		try {
+			if (mNext - mHead <= 0)
+				return null;
 		
+			T vResult = take();
+			if (mElastic)
+				shrink();
+			mChanged.signalAll();
+			return vResult;
+		} finally {
+			mLock.unlock();
+		}
+	}
+	
+	/**
+	 * Remove a value from the queue and return it, waiting no longer than a
+	 * given time for a value to become available. Because <code>null</code> is 
+	 * returned when the time runs out, <code>null</code> values shouldn't be put
+	 * into buffers used in this way.
+	 * 
+	 * @param pTimeout the longest time to wait.
+	 * @param pUnit the unit <code>pTimeout</code> is measured in.
+	 * @return the value removed, or <code>null</code> if the time ran out first.
+	 */
+	public T poll(long pTimeout, TimeUnit pUnit) throws InterruptedException {
+		mLock.lockInterruptibly();
+		try {
+			if (!awaitValue(pUnit.toNanos(pTimeout)))
+				return null;
+		
+			T vResult = take();
+			if (mElastic)
+				shrink();
+			mChanged.signalAll();
+			return vResult;
+		} finally {
+			mLock.unlock();
+		}
+	}
+	
+	/**
+	 * Remove up to <code>pMax</code> values from the queue, in order, and add 
+	 * them to a collection. This waits until at least one value is available
+	 * and then takes as many as it can in a single visit to the buffer,
+	 * notifying waiting threads once for the whole batch.
+	 * 
+	 * @param pDest the collection to add the values to.
+	 * @param pMax the maximum number of values to remove.
+	 * @return the number of values removed, which is only zero if 
+	 *         <code>pMax</code> is not positive.
+	 */
+	public int drainTo(Collection<? super T> pDest, int pMax) 
+			throws InterruptedException {
+		mLock.lockInterruptibly();
+		try {
+			if (pMax <= 0)
+				return 0;
+		
+			awaitValue();
 		
+			int vCount = Math.min(pMax, mNext - mHead);
+			for (int i = 0; i < vCount; i++)
+				pDest.add(take());
 		
-		// Now we know that a value is present, so get the head value
-		T vResult = mValues[mHead++];
+			if (mElastic)
+				shrink();
+			mChanged.signalAll();
 		
-		// Adjust if we've wrapped around in the buffer.
-		if (mHead >= CAPACITY) {
-			mHead -= CAPACITY;
-			mNext -= CAPACITY;
+			return vCount;
+		} finally {
+			mLock.unlock();
 		}
+	}
+	
+	/**
+	 * Remove up to <code>pMax</code> values from the queue and store them, 
+	 * in order, at the start of an array. This waits until at least one value 
+	 * is available and then takes as many as it can in a single visit to the
+	 * buffer, notifying waiting threads once for the whole batch.
+	 * 
+	 * @param pDest the array to store the values in.
+	 * @param pMax the maximum number of values to remove, this is also limited
+	 *        by the length of <code>pDest</code>.
+	 * @return the number of values removed, which is only zero if 
+	 *         <code>pMax</code> or the length of <code>pDest</code> is zero.
+	 */
+	public int drainTo(T[] pDest, int pMax) throws InterruptedException {
+		mLock.lockInterruptibly();
+		try {
+			int vMax = Math.min(pMax, pDest.length);
+			if (vMax <= 0)
+				return 0;
 		
-		// Finally notify all waiting threads. This will wake each thread in turn,
-		// and if one of those is waiting for a space to become available in the buffer
-		// it will proceed.
+			awaitValue();
 		
-		// We could optimise this by only calling notifyAll() when the buffer was
-		// previously full.
-		notifyAll();
+			int vCount = Math.min(vMax, mNext - mHead);
+			for (int i = 0; i < vCount; i++)
+				pDest[i] = take();
 		
+			if (mElastic)
+				shrink();
+			mChanged.signalAll();
 		
-		// And return the retrieved value.
+			return vCount;
+		} finally {
+			mLock.unlock();
+		}
+	}
+	
+	// Private methods
+	
+	/**
+	 * Wait until there is space in the buffer for at least one more
+	 * value. Must be called with the lock held.
+	 */
+	private void awaitSpace() throws InterruptedException {
+		long vStart = 0;
+		boolean vWaited = false;
+		try {
+			while (mNext - mHead >= mCapacity) {
+				// An elastic buffer grows, if it can, rather than waiting.
+				if (mElastic && grow())
+					continue;
+				
+				if (!vWaited) {
+					vWaited = true;
+					vStart = System.nanoTime();
+				}
+				mChanged.await();	// If there is no space then wait in the
+									// wait queue of our condition.
+			}
+		} finally {
+			if (vWaited)
+				mStatistics.recordFullWait(System.nanoTime() - vStart);
+		}
+	}
+	
+	/**
+	 * Wait until there is at least one value in the buffer. Must be 
+	 * called with the lock held.
+	 */
+	private void awaitValue() throws InterruptedException {
+		long vStart = 0;
+		boolean vWaited = false;
+		try {
+			while (mNext - mHead <= 0) {
+				if (!vWaited) {
+					vWaited = true;
+					vStart = System.nanoTime();
+				}
+				mChanged.await();	// If there is nothing there then wait in
+									// the wait queue of our condition.
+			}
+		} finally {
+			if (vWaited)
+				mStatistics.recordEmptyWait(System.nanoTime() - vStart);
+		}
+	}
+	
+	/**
+	 * Wait, for no longer than a given time, until there is space in the buffer
+	 * for at least one more value. Must be called with the lock held.
+	 * 
+	 * We could be woken many times before space becomes available, whether by
+	 * other threads signalling our condition or spuriously, so rather than 
+	 * waiting for the whole timeout each time we work out a deadline up front and 
+	 * only wait for whatever time remains before it. We measure time using 
+	 * {@link System#nanoTime()}, which unlike the time of day never jumps
+	 * backwards or forwards.
+	 * 
+	 * @param pNanos the longest time to wait, in nanoseconds.
+	 * @return true if there is space, false if the time ran out first.
+	 */
+	private boolean awaitSpace(long pNanos) throws InterruptedException {
+		long vStart = System.nanoTime();
+		long vDeadline = vStart + pNanos;
+		boolean vWaited = false;
+		try {
+			while (mNext - mHead >= mCapacity) {
+				if (mElastic && grow())
+					continue;
+				
+				long vRemaining = vDeadline - System.nanoTime();
+				if (vRemaining <= 0)
+					return false;
+				
+				vWaited = true;
+				mChanged.awaitNanos(vRemaining);
+			}
+			return true;
+		} finally {
+			if (vWaited)
+				mStatistics.recordFullWait(System.nanoTime() - vStart);
+		}
+	}
+	
+	/**
+	 * Wait, for no longer than a given time, until there is at least one value
+	 * in the buffer. Must be called with the lock held. See 
+	 * {@link #awaitSpace(long)} for how the timeout is handled.
+	 * 
+	 * @param pNanos the longest time to wait, in nanoseconds.
+	 * @return true if there is a value, false if the time ran out first.
+	 */
+	private boolean awaitValue(long pNanos) throws InterruptedException {
+		long vStart = System.nanoTime();
+		long vDeadline = vStart + pNanos;
+		boolean vWaited = false;
+		try {
+			while (mNext - mHead <= 0) {
+				long vRemaining = vDeadline - System.nanoTime();
+				if (vRemaining <= 0)
+					return false;
+				
+				vWaited = true;
+				mChanged.awaitNanos(vRemaining);
+			}
+			return true;
+		} finally {
+			if (vWaited)
+				mStatistics.recordEmptyWait(System.nanoTime() - vStart);
+		}
+	}
+	
+	/**
+	 * Remove the value at the head of a non-empty buffer and return it, clearing
+	 * its slot so that the buffer doesn't keep it reachable, and count it. Masking the position
+	 * takes care of wrapping around in the buffer. Must be called with the lock
+	 * held.
+	 */
+	private T take() {
+		int vIndex = mHead++ & mMask;
+		T vResult = mValues[vIndex];
+		mValues[vIndex] = null;
+		mStatistics.recordGets(1);
 		return vResult;
 	}
+	
+	/**
+	 * Double the size of an elastic buffer, unless that would take it past its
+	 * maximum capacity. Must be called with the lock held.
+	 * 
+	 * @return true if the capacity of the buffer was increased.
+	 */
+	private boolean grow() {
+		if (mCapacity >= mMaxCapacity)
+			return false;
+		
+		if (mCapacity == mValues.length)
+			resize(mValues.length << 1);
+		mCapacity = Math.min(mValues.length, mMaxCapacity);
+		return true;
+	}
+	
+	/**
+	 * Halve the size of an elastic buffer if it is no more than a quarter full,
+	 * but never make it smaller than it was initially. Must be called with the
+	 * lock held.
+	 */
+	private void shrink() {
+		int vLength = mValues.length;
+		if (vLength > mMinLength && mNext - mHead <= (vLength >> 2)) {
+			resize(vLength >> 1);
+			mCapacity = Math.min(mValues.length, mMaxCapacity);
+		}
+	}
+	
+	/**
+	 * Move the contents of the buffer into a new array of a given length,
+	 * which must be a power of two big enough to hold them. The values are
+	 * copied to the start of the new array, in order. Must be called with
+	 * the lock held.
+	 */
+	@SuppressWarnings("unchecked")
+	private void resize(int pLength) {
+		int vSize = mNext - mHead;
+		T[] vValues = (T[]) new Object[pLength];
+		for (int i = 0; i < vSize; i++)
+			vValues[i] = mValues[(mHead + i) & mMask];
+		
+		mValues = vValues;
+		mMask = pLength - 1;
+		mHead = 0;
+		mNext = vSize;
+	}
 }
@@ -0,0 +1,79 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.prodcons;
+
+/**
+ * The common interface implemented by each of our bounded buffer
+ * classes. A {@link Producer} calls {@link #put(Object)} to add values
+ * to a buffer and a {@link Consumer} calls {@link #get()} to take them
+ * out again, so either may be paired with any implementation.
+ *
+ * Both methods block: {@link #put(Object)} waits while the buffer is
+ * full and {@link #get()} waits while it is empty. How that waiting is
+ * done is left to the implementation. The {@link #offer(Object)} and 
+ * {@link #poll()} methods do the same jobs but never wait.
+ *
+ * @author mq-soft-tech
+ *
+ */
+public interface Buffer<T> {
+
+	/**
+	 * Add a new value to the tail of the queue, waiting for space to become
+	 * available if the buffer is full.
+	 *
+	 * @param pValue the value to add.
+	 * @throws InterruptedException if the calling thread is interrupted while
+	 *         waiting for space.
+	 */
+	void put(T pValue) throws InterruptedException;
+
+	/**
+	 * Remove a value from the head of the queue and return it, waiting for a
+	 * value to become available if the buffer is empty.
+	 *
+	 * @return the value removed.
+	 * @throws InterruptedException if the calling thread is interrupted while
+	 *         waiting for a value.
+	 */
+	T get() throws InterruptedException;
+	
+	/**
+	 * Add a new value to the tail of the queue if there is space for it,
+	 * without waiting.
+	 *
+	 * @param pValue the value to add.
+	 * @return true if the value was added and false if the buffer was full.
+	 */
+	boolean offer(T pValue);
+	
+	/**
+	 * Remove a value from the head of the queue and return it if there is one,
+	 * without waiting. Because <code>null</code> is returned when the buffer is
+	 * empty, <code>null</code> values shouldn't be put into buffers used in this way.
+	 *
+	 * @return the value removed, or <code>null</code> if the buffer was empty.
+	 */
+	T poll();
+}
@@ -0,0 +1,228 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.prodcons;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Counters which record how heavily a bounded buffer is being used, and
+ * how often the threads using it have had to wait.</p>
+ * 
+ * <p>The buffer updates these counters as it goes, and any thread may call 
+ * {@link #snapshot()} at any time to read them without having to acquire the
+ * buffer's lock. The counts are kept in {@link LongAdder} objects, which 
+ * spread their updates over several separate cells when many threads update 
+ * them at once, so that recording a statistic never holds up the buffer.</p>
+ * 
+ * <p>Since the counters are read one at a time, a snapshot taken while the
+ * buffer is busy may not be exactly consistent. For example, it may show
+ * slightly more gets than puts. That is fine for monitoring purposes.</p>
+ * 
+ * @author mq-soft-tech
+ *
+ */
+public class BufferStatistics {
+
+	// Data members (instance variables)
+	
+	/**
+	 * Number of values put into the buffer.
+	 */
+	private final LongAdder mPuts = new LongAdder();
+	
+	/**
+	 * Number of values taken from the buffer.
+	 */
+	private final LongAdder mGets = new LongAdder();
+	
+	/**
+	 * Number of times a producer has had to wait because the buffer was full.
+	 */
+	private final LongAdder mFullWaits = new LongAdder();
+	
+	/**
+	 * Number of times a consumer has had to wait because the buffer was empty.
+	 */
+	private final LongAdder mEmptyWaits = new LongAdder();
+	
+	/**
+	 * Total time producers have spent waiting, in nanoseconds.
+	 */
+	private final LongAdder mFullWaitNanos = new LongAdder();
+	
+	/**
+	 * Total time consumers have spent waiting, in nanoseconds.
+	 */
+	private final LongAdder mEmptyWaitNanos = new LongAdder();
+	
+	/**
+	 * The largest number of values the buffer has held at any one time. This is
+	 * only ever written while the buffer's lock is held, but it is volatile so that 
+	 * {@link #snapshot()} can read it without acquiring that lock.
+	 */
+	private volatile int mHighWaterMark;
+	
+	// Methods
+	
+	/**
+	 * Record that some values have been put into the buffer.
+	 * 
+	 * @param pCount the number of values.
+	 */
+	void recordPuts(int pCount) {
+		mPuts.add(pCount);
+	}
+	
+	/**
+	 * Record that some values have been taken from the buffer.
+	 * 
+	 * @param pCount the number of values.
+	 */
+	void recordGets(int pCount) {
+		mGets.add(pCount);
+	}
+	
+	/**
+	 * Record that a producer waited for the buffer to stop being full.
+	 * 
+	 * @param pNanos how long it waited, in nanoseconds.
+	 */
+	void recordFullWait(long pNanos) {
+		mFullWaits.increment();
+		mFullWaitNanos.add(pNanos);
+	}
+	
+	/**
+	 * Record that a consumer waited for the buffer to stop being empty.
+	 * 
+	 * @param pNanos how long it waited, in nanoseconds.
+	 */
+	void recordEmptyWait(long pNanos) {
+		mEmptyWaits.increment();
+		mEmptyWaitNanos.add(pNanos);
+	}
+	
+	/**
+	 * Record the number of values in the buffer, updating the high water mark 
+	 * if necessary. Must be called with the buffer's lock held.
+	 * 
+	 * @param pSize the number of values currently in the buffer.
+	 */
+	void recordOccupancy(int pSize) {
+		if (pSize > mHighWaterMark)
+			mHighWaterMark = pSize;
+	}
+	
+	/**
+	 * @return the current values of all of these statistics.
+	 */
+	public Snapshot snapshot() {
+		return new Snapshot(mPuts.sum(), mGets.sum(), 
+				mFullWaits.sum(), mEmptyWaits.sum(),
+				mFullWaitNanos.sum(), mEmptyWaitNanos.sum(), 
+				mHighWaterMark);
+	}
+	
+	/**
+	 * The values of a buffer's statistics at a single point in time.
+	 */
+	public static final class Snapshot {
+		
+		private final long mPuts;
+		private final long mGets;
+		private final long mFullWaits;
+		private final long mEmptyWaits;
+		private final long mFullWaitNanos;
+		private final long mEmptyWaitNanos;
+		private final int mHighWaterMark;
+		
+		private Snapshot(long pPuts, long pGets, long pFullWaits, long pEmptyWaits,
+				long pFullWaitNanos, long pEmptyWaitNanos, int pHighWaterMark) {
+			mPuts = pPuts;
+			mGets = pGets;
+			mFullWaits = pFullWaits;
+			mEmptyWaits = pEmptyWaits;
+			mFullWaitNanos = pFullWaitNanos;
+			mEmptyWaitNanos = pEmptyWaitNanos;
+			mHighWaterMark = pHighWaterMark;
+		}
+		
+		/**
+		 * @return the number of values put into the buffer.
+		 */
+		public long getPuts() {
+			return mPuts;
+		}
+		
+		/**
+		 * @return the number of values taken from the buffer.
+		 */
+		public long getGets() {
+			return mGets;
+		}
+		
+		/**
+		 * @return the number of times a producer waited because the buffer was full.
+		 */
+		public long getFullWaits() {
+			return mFullWaits;
+		}
+		
+		/**
+		 * @return the number of times a consumer waited because the buffer was empty.
+		 */
+		public long getEmptyWaits() {
+			return mEmptyWaits;
+		}
+		
+		/**
+		 * @return the total time producers have spent waiting, in nanoseconds.
+		 */
+		public long getFullWaitNanos() {
+			return mFullWaitNanos;
+		}
+		
+		/**
+		 * @return the total time consumers have spent waiting, in nanoseconds.
+		 */
+		public long getEmptyWaitNanos() {
+			return mEmptyWaitNanos;
+		}
+		
+		/**
+		 * @return the largest number of values the buffer has held at one time.
+		 */
+		public int getHighWaterMark() {
+			return mHighWaterMark;
+		}
+		
+		@Override
+		public String toString() {
+			return "puts=" + mPuts + " gets=" + mGets +
+					" fullWaits=" + mFullWaits + " (" + mFullWaitNanos + "ns)" +
+					" emptyWaits=" + mEmptyWaits + " (" + mEmptyWaitNanos + "ns)" +
+					" highWaterMark=" + mHighWaterMark;
+		}
+	}
+}
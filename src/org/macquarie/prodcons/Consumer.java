@@ -32,11 +32,20 @@ import java.util.Random;
  * @author Dominic Verity
  *
  */
-public class Consumer extends Thread {
+public class Consumer implements Runnable {
 	
 	// Data members (instance variables)
 	
-	private BoundedBuffer<Integer> mBuffer;
+	/**
+	 * The buffer to source values from.
+	 */
+	private Buffer<Integer> mBuffer;
+	
+	/**
+	 * Whether to print each value consumed. This is turned off when there are
+	 * so many tasks that printing would swamp everything else.
+	 */
+	private volatile boolean mVerbose = true;
 	
 	// Constructors
 	
@@ -46,15 +55,25 @@ public class Consumer extends Thread {
 	 * 
 	 * @param pBuffer the buffer to source values from.
 	 */
-	Consumer (BoundedBuffer<Integer> pBuffer) {
+	Consumer (Buffer<Integer> pBuffer) {
 		mBuffer = pBuffer;
 	}
-
+	
 	// Methods
 	
+	/**
+	 * Turn the printing of each value consumed on or off.
+	 * 
+	 * @param pVerbose true to print each value, false to stay quiet.
+	 */
+	void setVerbose(boolean pVerbose) {
+		mVerbose = pVerbose;
+	}
+	
 	/** 
-	 * The run method for this thread.
-	 * @see java.lang.Thread#run()
+	 * The run method for this task. It runs until the thread running it
+	 * is interrupted.
+	 * @see java.lang.Runnable#run()
 	 */
 	@Override
 	public void run() {
@@ -63,18 +82,19 @@ public class Consumer extends Thread {
 		
 		// Surround our code with a try catch to handle thread interruptions.
 		try {
-			while (!interrupted()) {
+			while (!Thread.interrupted()) {
 				// Generate a random period to wait for.
 				long vWait = Math.abs(vRandom.nextInt()) % 1000;
 
 				// Now sleep.
-				sleep(vWait);
+				Thread.sleep(vWait);
 				
 				// Finally get a value from the buffer
 				int vValue = mBuffer.get();
 				
 				// And print it.
-				System.out.println("Value consumed: " + vValue);
+				if (mVerbose)
+					System.out.println("Value consumed: " + vValue);
 			}
 		} catch (InterruptedException pExn) {
 			// Nothing to do here, just exit.
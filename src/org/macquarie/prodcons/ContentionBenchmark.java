@@ -0,0 +1,139 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.prodcons;
+
+import java.util.function.Supplier;
+
+/**
+ * <p>A simple benchmark which compares the throughput of {@link BoundedBuffer}, 
+ * whose every operation wakes all waiting threads with
+ * {@link java.util.concurrent.locks.Condition#signalAll()}, with that of 
+ * {@link SplitConditionBoundedBuffer}, which keeps producers and consumers in 
+ * separate wait sets and wakes them one at a time.</p>
+ * 
+ * <p>For each of a range of thread counts, half of the threads are producers 
+ * and half are consumers, all sharing a single buffer. The producers put a 
+ * fixed number of values each as fast as they can and the consumers take them 
+ * out again. We time how long it takes for all of the values to pass through 
+ * the buffer. The difference between the two buffers should become quite 
+ * marked at 16 threads and above.</p>
+ * 
+ * <p>Usage: <code>ContentionBenchmark [values per producer] [capacity]</code></p>
+ * 
+ * @author mq-soft-tech
+ *
+ */
+public class ContentionBenchmark {
+
+	// Static data members (constants)
+	
+	/**
+	 * The total numbers of threads (producers plus consumers) to test with.
+	 */
+	private static final int[] THREAD_COUNTS = {2, 4, 8, 16, 32, 64};
+	
+	/**
+	 * Default number of values each producer puts into the buffer.
+	 */
+	private static final int DEFAULT_VALUES_PER_PRODUCER = 20000;
+	
+	/**
+	 * Default capacity of the buffer.
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+	
+	// Methods
+	
+	/**
+	 * The main entry point for this benchmark.
+	 * 
+	 * @param pArgs command line arguments, see the class description.
+	 */
+	public static void main(String[] pArgs) throws InterruptedException {
+		int vValuesPerProducer = (pArgs.length > 0) ? 
+				Integer.parseInt(pArgs[0]) : DEFAULT_VALUES_PER_PRODUCER;
+		int vCapacity = (pArgs.length > 1) ? 
+				Integer.parseInt(pArgs[1]) : DEFAULT_CAPACITY;
+		
+		System.out.printf("%8s %14s %14s%n", "threads", "signalAll", "split");
+		for (int vThreads : THREAD_COUNTS) {
+			int vPairs = vThreads / 2;
+			
+			// Warm up each buffer first, so that we aren't timing the JIT compiler.
+			run(() -> new BoundedBuffer<Integer>(vCapacity), vPairs, vValuesPerProducer);
+			run(() -> new SplitConditionBoundedBuffer<Integer>(vCapacity), vPairs, vValuesPerProducer);
+			
+			double vSignalAll = run(() -> new BoundedBuffer<Integer>(vCapacity), 
+					vPairs, vValuesPerProducer);
+			double vSplit = run(() -> new SplitConditionBoundedBuffer<Integer>(vCapacity), 
+					vPairs, vValuesPerProducer);
+			
+			System.out.printf("%8d %14.0f %14.0f  ops/sec%n", vThreads, vSignalAll, vSplit);
+		}
+	}
+	
+	/**
+	 * Run a single trial, passing values through a newly created buffer.
+	 * 
+	 * @param pFactory makes the buffer to test.
+	 * @param pPairs the number of producers, and also of consumers.
+	 * @param pValuesPerProducer the number of values each producer puts.
+	 * @return the throughput of the buffer, in values per second.
+	 */
+	private static double run(Supplier<Buffer<Integer>> pFactory, int pPairs, 
+			int pValuesPerProducer) throws InterruptedException {
+		Buffer<Integer> vBuffer = pFactory.get();
+		Thread[] vThreads = new Thread[2 * pPairs];
+		
+		// Each producer puts the same number of values and each consumer takes
+		// the same number, so everything put is eventually taken.
+		for (int i = 0; i < pPairs; i++) {
+			vThreads[2 * i] = new Thread(() -> {
+				try {
+					for (int j = 0; j < pValuesPerProducer; j++)
+						vBuffer.put(j);
+				} catch (InterruptedException pExn) {
+					// Nothing to do here, just exit.
+				}
+			});
+			vThreads[2 * i + 1] = new Thread(() -> {
+				try {
+					for (int j = 0; j < pValuesPerProducer; j++)
+						vBuffer.get();
+				} catch (InterruptedException pExn) {
+					// Nothing to do here, just exit.
+				}
+			});
+		}
+		
+		long vStart = System.nanoTime();
+		for (Thread vThread : vThreads)
+			vThread.start();
+		for (Thread vThread : vThreads)
+			vThread.join();
+		long vElapsed = System.nanoTime() - vStart;
+		
+		return (double) pPairs * pValuesPerProducer * 1e9 / vElapsed;
+	}
+}
@@ -0,0 +1,171 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.prodcons;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>A thread safe bounded buffer of <code>int</code> values. This works in
+ * exactly the same way as {@link BoundedBuffer}, but stores its values in an
+ * <code>int[]</code> rather than in an array of objects.</p>
+ * 
+ * <p>A {@link BoundedBuffer BoundedBuffer&lt;Integer&gt;} can only hold 
+ * {@link Integer} objects, so every <code>int</code> put into it must first be
+ * <em>boxed</em>. Other than for a few small values, which are cached, that
+ * means allocating a new object for every value which passes through the
+ * buffer. The {@link #putInt(int)} and {@link #getInt()} methods of this class
+ * don't allocate anything at all.</p>
+ * 
+ * @author mq-soft-tech
+ *
+ */
+public class IntBoundedBuffer {
+
+	// Data members (instance variables)
+
+	/**
+	 * The array of values stored in this buffer, its length is a power of two.
+	 */
+	private final int[] mValues;
+	
+	/**
+	 * Mask used to convert a position in the buffer into an index into 
+	 * <code>mValues</code>.
+	 */
+	private final int mMask;
+	
+	/**
+	 * The number of values the buffer can hold.
+	 */
+	private final int mCapacity;
+	
+	/**
+	 * Position of the first free location in the buffer.
+	 */
+	private int mNext;
+	
+	/**
+	 * Position of value at head of the queue.
+	 */
+	private int mHead;
+	
+	/**
+	 * The lock which guards all of the state of this buffer. Like 
+	 * {@link BoundedBuffer} we use an explicit lock, rather than 
+	 * <code>synchronized</code>, so that virtual threads waiting on
+	 * the buffer don't tie up their carrier threads.
+	 */
+	private final ReentrantLock mLock = new ReentrantLock();
+	
+	/**
+	 * Threads wait on this condition until the contents of the buffer change.
+	 */
+	private final Condition mChanged = mLock.newCondition();
+	
+	// Constructors
+	
+	/**
+	 * Default constructor - makes an empty buffer which can hold
+	 * {@link BoundedBuffer#DEFAULT_CAPACITY} values.
+	 */
+	public IntBoundedBuffer () {
+		this(BoundedBuffer.DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Make an empty buffer.
+	 * 
+	 * @param pCapacity the number of values the buffer can hold.
+	 */
+	public IntBoundedBuffer (int pCapacity) {
+		if (pCapacity < 1 || pCapacity > (1 << 30))
+			throw new IllegalArgumentException("Capacity out of range: " + pCapacity);
+		
+		int vLength = 1;
+		while (vLength < pCapacity)
+			vLength <<= 1;
+		
+		mValues = new int[vLength];
+		mMask = vLength - 1;
+		mCapacity = pCapacity;
+		mNext = 0;
+		mHead = 0;
+	}
+	
+	// Public methods
+	
+	/**
+	 * @return the number of values the buffer can hold.
+	 */
+	public int capacity() {
+		return mCapacity;
+	}
+	
+	/**
+	 * @return the number of values currently held in the buffer.
+	 */
+	public int size() {
+		mLock.lock();
+		try {
+			return mNext - mHead;
+		} finally {
+			mLock.unlock();
+		}
+	}
+	
+	/**
+	 * Add a new value to the queue, waiting for space if the buffer is full.
+	 */
+	public void putInt(int pValue) throws InterruptedException {
+		mLock.lockInterruptibly();
+		try {
+			while (mNext - mHead >= mCapacity)
+				mChanged.await();
+			
+			mValues[mNext++ & mMask] = pValue;
+			mChanged.signalAll();
+		} finally {
+			mLock.unlock();
+		}
+	}
+	
+	/**
+	 * Remove a value from the queue and return it, waiting for a value
+	 * if the buffer is empty.
+	 */
+	public int getInt() throws InterruptedException {
+		mLock.lockInterruptibly();
+		try {
+			while (mNext - mHead <= 0)
+				mChanged.await();
+			
+			int vResult = mValues[mHead++ & mMask];
+			mChanged.signalAll();
+			return vResult;
+		} finally {
+			mLock.unlock();
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.prodcons;
+
+import java.util.Random;
+
+/**
+ * A consumer which works just like {@link Consumer}, but which takes 
+ * <code>int</code> values from an {@link IntBoundedBuffer}. Neither taking
+ * a value nor printing it creates any objects.
+ * 
+ * @author mq-soft-tech
+ *
+ */
+public class IntConsumer implements Runnable {
+	
+	// Data members (instance variables)
+	
+	/**
+	 * The buffer to source values from.
+	 */
+	private final IntBoundedBuffer mBuffer;
+	
+	/**
+	 * Whether to print each value consumed. This is turned off when there are
+	 * so many tasks that printing would swamp everything else.
+	 */
+	private volatile boolean mVerbose = true;
+	
+	/**
+	 * Used to print each value consumed.
+	 */
+	private final ValueLog mLog = new ValueLog("Value consumed: ");
+	
+	// Constructors
+	
+	/**
+	 * Construct a consumer which sources the values it consumes
+	 * from a specified <code>int</code> buffer.
+	 * 
+	 * @param pBuffer the buffer to source values from.
+	 */
+	IntConsumer (IntBoundedBuffer pBuffer) {
+		mBuffer = pBuffer;
+	}
+
+	// Methods
+	
+	/**
+	 * Turn the printing of each value consumed on or off.
+	 * 
+	 * @param pVerbose true to print each value, false to stay quiet.
+	 */
+	void setVerbose(boolean pVerbose) {
+		mVerbose = pVerbose;
+	}
+	
+	/** 
+	 * The run method for this task. It runs until the thread running it
+	 * is interrupted.
+	 * @see java.lang.Runnable#run()
+	 */
+	@Override
+	public void run() {
+		// A random number generator for generating waiting periods
+		Random vRandom = new Random();
+		
+		// Surround our code with a try catch to handle thread interruptions.
+		try {
+			while (!Thread.interrupted()) {
+				// Generate a random period to wait for.
+				long vWait = Math.abs(vRandom.nextInt()) % 1000;
+
+				// Now sleep.
+				Thread.sleep(vWait);
+				
+				// Finally get a value from the buffer
+				int vValue = mBuffer.getInt();
+				
+				// And print it.
+				if (mVerbose)
+					mLog.println(vValue);
+			}
+		} catch (InterruptedException pExn) {
+			// Nothing to do here, just exit.
+		}
+	}
+}
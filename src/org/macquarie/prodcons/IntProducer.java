@@ -0,0 +1,113 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.prodcons;
+
+import java.util.Random;
+
+/**
+ * A producer which works just like {@link Producer}, but which writes 
+ * <code>int</code> values to an {@link IntBoundedBuffer}. Neither storing
+ * a value nor printing it creates any objects.
+ * 
+ * @author mq-soft-tech
+ *
+ */
+public class IntProducer implements Runnable {
+	
+	// Data members (instance variables)
+	
+	/**
+	 * The buffer to write values to.
+	 */
+	private final IntBoundedBuffer mBuffer;
+	
+	/**
+	 * Whether to print each value produced. This is turned off when there are
+	 * so many tasks that printing would swamp everything else.
+	 */
+	private volatile boolean mVerbose = true;
+	
+	/**
+	 * Used to print each value produced.
+	 */
+	private final ValueLog mLog = new ValueLog("Value produced: ");
+	
+	// Constructors
+	
+	/**
+	 * Construct a producer which writes the values it constructs
+	 * to a specified <code>int</code> buffer.
+	 * 
+	 * @param pBuffer the buffer to write values to.
+	 */
+	IntProducer (IntBoundedBuffer pBuffer) {
+		mBuffer = pBuffer;
+	}
+
+	// Methods
+	
+	/**
+	 * Turn the printing of each value produced on or off.
+	 * 
+	 * @param pVerbose true to print each value, false to stay quiet.
+	 */
+	void setVerbose(boolean pVerbose) {
+		mVerbose = pVerbose;
+	}
+	
+	/** 
+	 * The run method for this task. It runs until the thread running it
+	 * is interrupted.
+	 * @see java.lang.Runnable#run()
+	 */
+	@Override
+	public void run() {
+		// A random number generator for generating waiting periods and
+		// values to write to the buffer.
+		Random vRandom = new Random();
+		
+		// Surround our code with a try catch to handle thread interruptions.
+		try {
+			while (!Thread.interrupted()) {
+				// Generate a random period to wait for.
+				long vWait = Math.abs(vRandom.nextInt()) % 1000;
+				
+				// Now sleep.
+				Thread.sleep(vWait);
+				
+				// Generate a value to add to the buffer.
+				int vValue = vRandom.nextInt();
+				
+				// Add it.
+				mBuffer.putInt(vValue);
+				
+				// And print it.
+				if (mVerbose)
+					mLog.println(vValue);
+			}
+		} catch (InterruptedException pExn) {
+			// Nothing to do here, just exit.
+		}
+	}
+}
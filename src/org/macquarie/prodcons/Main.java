@@ -23,31 +23,217 @@
 
 package org.macquarie.prodcons;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
 /**
- * An application which sets up a producer and a consumer object which
- * may communicate via a shared bounded buffer. Then it sets them going to see
- * what happens.
+ * <p>An application which sets up a number of producer and consumer objects
+ * which may communicate via a shared bounded buffer. Then it sets them going
+ * to see what happens.</p>
+ * 
+ * <p>Usage: <code>Main [-int] [producers consumers [capacity]]</code>. With no
+ * arguments we start one producer and one consumer, each of which prints
+ * every value it handles. With more than a few of them we stay quiet and 
+ * print the buffer's {@link BufferStatistics} once a second instead.</p>
+ * 
+ * <p>By default the tasks share a {@link BoundedBuffer} of boxed 
+ * <code>Integer</code> values. With the <code>-int</code> option they use an
+ * {@link IntBoundedBuffer} instead, via {@link IntProducer} and
+ * {@link IntConsumer}, so that no objects are created for each value. That
+ * buffer keeps no statistics, so in quiet mode we just report how full
+ * it is.</p>
+ * 
+ * <p>Each producer and consumer is run in a virtual thread if this version
+ * of Java supports them (Java 21 and later). Virtual threads are so cheap
+ * that it is quite reasonable to start 100,000 producers and consumers,
+ * most of which will be asleep or waiting on the buffer at any one time.
+ * On older versions of Java we fall back to ordinary platform threads, so
+ * be a little more careful about how many you ask for. Virtual threads never
+ * keep the JVM alive on their own, so the main thread waits for all of the
+ * producers and consumers to finish, which they never do.</p>
  * 
  * @author Dominic Verity
  *
  */
 public class Main {
 
+	// Static data members (constants)
+	
+	/**
+	 * Largest total number of producers and consumers which print each
+	 * value that they handle.
+	 */
+	private final static int MAX_VERBOSE_TASKS = 8;
+	
+	/**
+	 * Time between reports of the buffer's statistics, in milliseconds.
+	 */
+	private final static long REPORT_INTERVAL = 1000;
+	
+	/**
+	 * Message printed when the command line arguments don't make sense.
+	 */
+	private final static String USAGE = 
+			"Usage: Main [-int] [producers consumers [capacity]]";
+	
+	// Static methods
+	
 	/**
 	 * The main entry point for this application.
-	 * @param args - command line arguments, not used in this example.
+	 * @param args - command line arguments, optionally <code>-int</code>
+	 *        followed by the number of producers, the number of consumers 
+	 *        and the capacity of the buffer.
+	 * @throws InterruptedException 
 	 */
-	public static void main(String[] args) {
+	public static void main(String[] args) throws InterruptedException {
+		boolean vPrimitive = args.length > 0 && args[0].equals("-int");
+		if (vPrimitive)
+			args = Arrays.copyOfRange(args, 1, args.length);
+		
+		// The numbers of producers and consumers come as a pair, so one on its 
+		// own is most likely a mistake.
+		if (args.length == 1 || args.length > 3) {
+			System.err.println(USAGE);
+			return;
+		}
+		
+		int vProducers, vConsumers, vCapacity;
+		try {
+			vProducers = (args.length > 1) ? Integer.parseInt(args[0]) : 1;
+			vConsumers = (args.length > 1) ? Integer.parseInt(args[1]) : 1;
+			vCapacity = (args.length > 2) ? 
+					Integer.parseInt(args[2]) : BoundedBuffer.DEFAULT_CAPACITY;
+		} catch (NumberFormatException pExn) {
+			System.err.println(USAGE);
+			return;
+		}
+		if (vProducers < 0 || vConsumers < 0 || vCapacity < 1) {
+			System.err.println(USAGE);
+			return;
+		}
+		boolean vVerbose = vProducers + vConsumers <= MAX_VERBOSE_TASKS;
+		
+		if (vPrimitive) {
+			runPrimitive(vProducers, vConsumers, vCapacity, vVerbose);
+			return;
+		}
+		
 		// Create a bounded buffer.
-		BoundedBuffer<Integer> vBuffer = new BoundedBuffer<Integer>();
+		BoundedBuffer<Integer> vBuffer = new BoundedBuffer<Integer>(vCapacity);
 		
-		// Create consumer and producer threads which talk with that buffer
-		Producer vProducer = new Producer(vBuffer);
-		Consumer vConsumer = new Consumer(vBuffer);
+		// Create consumer and producer tasks which talk with that buffer,
+		// and start a thread to run each of them.
+		ThreadFactory vFactory = threadFactory();
+		List<Thread> vThreads = new ArrayList<Thread>();
+		for (int i = 0; i < vProducers; i++) {
+			Producer vProducer = new Producer(vBuffer);
+			vProducer.setVerbose(vVerbose);
+			vThreads.add(start(vFactory, vProducer));
+		}
+		for (int i = 0; i < vConsumers; i++) {
+			Consumer vConsumer = new Consumer(vBuffer);
+			vConsumer.setVerbose(vVerbose);
+			vThreads.add(start(vFactory, vConsumer));
+		}
 		
-		// And start them....
-		vProducer.start();
-		vConsumer.start();
+		// If the tasks are keeping quiet, report on how the buffer is doing.
+		if (!vVerbose) {
+			while (true) {
+				Thread.sleep(REPORT_INTERVAL);
+				System.out.println(vBuffer.getStatistics());
+			}
+		}
+		
+		// Otherwise wait for the tasks, so that the JVM doesn't exit under them.
+		joinAll(vThreads);
+	}
+	
+	/**
+	 * Run producers and consumers which share an {@link IntBoundedBuffer},
+	 * so that values are never boxed.
+	 * 
+	 * @param pProducers the number of producers to start.
+	 * @param pConsumers the number of consumers to start.
+	 * @param pCapacity the capacity of the buffer.
+	 * @param pVerbose whether each task should print the values it handles.
+	 * @throws InterruptedException
+	 */
+	private static void runPrimitive(int pProducers, int pConsumers, 
+			int pCapacity, boolean pVerbose) throws InterruptedException {
+		// Create a bounded buffer of ints.
+		IntBoundedBuffer vBuffer = new IntBoundedBuffer(pCapacity);
+		
+		// Create consumer and producer tasks which talk with that buffer,
+		// and start a thread to run each of them.
+		ThreadFactory vFactory = threadFactory();
+		List<Thread> vThreads = new ArrayList<Thread>();
+		for (int i = 0; i < pProducers; i++) {
+			IntProducer vProducer = new IntProducer(vBuffer);
+			vProducer.setVerbose(pVerbose);
+			vThreads.add(start(vFactory, vProducer));
+		}
+		for (int i = 0; i < pConsumers; i++) {
+			IntConsumer vConsumer = new IntConsumer(vBuffer);
+			vConsumer.setVerbose(pVerbose);
+			vThreads.add(start(vFactory, vConsumer));
+		}
+		
+		// If the tasks are keeping quiet, report on how full the buffer is.
+		if (!pVerbose) {
+			while (true) {
+				Thread.sleep(REPORT_INTERVAL);
+				System.out.println("Buffer holds " + vBuffer.size() + 
+						" of " + vBuffer.capacity() + " values");
+			}
+		}
+		
+		// Otherwise wait for the tasks, so that the JVM doesn't exit under them.
+		joinAll(vThreads);
+	}
+	
+	/**
+	 * Start a thread to run a task.
+	 * 
+	 * @param pFactory the factory to make the thread with.
+	 * @param pTask the task to run.
+	 * @return the thread, which has been started.
+	 */
+	private static Thread start(ThreadFactory pFactory, Runnable pTask) {
+		Thread vThread = pFactory.newThread(pTask);
+		vThread.start();
+		return vThread;
+	}
+	
+	/**
+	 * Wait for each of a list of threads to finish.
+	 * 
+	 * @param pThreads the threads to wait for.
+	 * @throws InterruptedException
+	 */
+	private static void joinAll(List<Thread> pThreads) throws InterruptedException {
+		for (Thread vThread : pThreads)
+			vThread.join();
+	}
+	
+	/**
+	 * Find a factory for the threads which will run our producers and
+	 * consumers. This is <code>Thread.ofVirtual().factory()</code> if
+	 * virtual threads are available. We look that method up by reflection
+	 * so that this class will still compile and run on older versions
+	 * of Java, where we just return a factory for platform threads.
+	 * 
+	 * @return a factory for virtual threads if possible, or platform threads
+	 *         otherwise.
+	 */
+	static ThreadFactory threadFactory() {
+		try {
+			Object vBuilder = Thread.class.getMethod("ofVirtual").invoke(null);
+			return (ThreadFactory) Class.forName("java.lang.Thread$Builder")
+					.getMethod("factory").invoke(vBuilder);
+		} catch (ReflectiveOperationException pExn) {
+			return Thread::new;
+		}
 	}
-
 }
@@ -0,0 +1,260 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.prodcons;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>A lock free bounded buffer which may be shared by any number of producer
+ * and consumer threads. It offers the same {@link #put(Object)} / {@link #get()}
+ * contract as {@link BoundedBuffer}, but where that class makes every thread 
+ * queue up for a single lock, here producers and consumers claim slots in the 
+ * buffer independently using compare-and-set operations. This design is due
+ * to Dmitry Vyukov.</p>
+ * 
+ * <p>As in {@link SpscBoundedBuffer} we have a power of two sized array and two 
+ * counters: <code>mTail</code>, the position of the next value to be put, and 
+ * <code>mHead</code>, the position of the next value to be taken. In addition
+ * each slot of the array carries a sequence number which tells us what state it
+ * is in. For the slot at position <code>p</code> (so index <code>p &amp; mMask</code>):</p>
+ * 
+ * <ul>
+ * <li>sequence <code>== p</code> means the slot is free, and a producer may fill it.</li>
+ * <li>sequence <code>== p + 1</code> means the slot has been filled, and a consumer
+ * may take its value.</li>
+ * <li>once the value is taken the sequence is set to <code>p + capacity</code>, 
+ * freeing the slot for the producer which will arrive one lap later.</li>
+ * </ul>
+ * 
+ * <p>A producer reads <code>mTail</code> and looks at the sequence of the 
+ * corresponding slot. If the slot is free it tries to claim it by advancing 
+ * <code>mTail</code> with a compare-and-set. Only one producer can win that race;
+ * the winner then fills the slot at its leisure and publishes it by updating the
+ * sequence, while the losers simply try again at the next position. Consumers 
+ * do the same thing with <code>mHead</code>. So no thread ever holds a lock,
+ * and a producer and a consumer never contend with each other unless the buffer
+ * is nearly full or nearly empty.</p>
+ * 
+ * <p>If the buffer is full (or empty) the calling thread waits using a 
+ * {@link WaitStrategy}, which by default spins briefly and then backs off,
+ * parking for short periods and checking again.</p>
+ * 
+ * @author mq-soft-tech
+ *
+ */
+public class MpmcBoundedBuffer<T> implements Buffer<T> {
+
+	// Data members (instance variables)
+
+	/**
+	 * The array of values stored in this buffer.
+	 */
+	private final T[] mValues;
+	
+	/**
+	 * The sequence number of each slot in <code>mValues</code>.
+	 */
+	private final AtomicLongArray mSequences;
+	
+	/**
+	 * Mask used to convert a position in the buffer into an index into 
+	 * <code>mValues</code>.
+	 */
+	private final int mMask;
+	
+	/**
+	 * Position of the next value to be taken by a consumer.
+	 */
+	private final PaddedSequence mHead;
+	
+	/**
+	 * Position of the next value to be put by a producer.
+	 */
+	private final PaddedSequence mTail;
+	
+	/**
+	 * How producers and consumers wait when the buffer is full or empty.
+	 */
+	private final WaitStrategy mWaitStrategy;
+	
+	// Constructors
+
+	/**
+	 * Make an empty buffer which uses the {@link WaitStrategy#BACKOFF} strategy.
+	 *
+	 * @param pCapacity the minimum number of values the buffer can hold. This
+	 *        is rounded up to the next power of two, and to at least two.
+	 */
+	public MpmcBoundedBuffer(int pCapacity) {
+		this(pCapacity, WaitStrategy.BACKOFF);
+	}
+
+	/**
+	 * Make an empty buffer.
+	 *
+	 * @param pCapacity the minimum number of values the buffer can hold. This
+	 *        is rounded up to the next power of two, and to at least two.
+	 * @param pWaitStrategy how to wait when the buffer is full or empty.
+	 */
+	@SuppressWarnings("unchecked")
+	public MpmcBoundedBuffer(int pCapacity, WaitStrategy pWaitStrategy) {
+		if (pCapacity < 1 || pCapacity > (1 << 30))
+			throw new IllegalArgumentException("Capacity out of range: " + pCapacity);
+		if (pWaitStrategy == null)
+			throw new NullPointerException("Wait strategy must not be null");
+
+		// A single slot would not work: the sequence number p + 1 would mean
+		// both "filled for position p" and "free for position p + 1", so a
+		// producer could overwrite a value before a consumer had taken it.
+		int vLength = 2;
+		while (vLength < pCapacity)
+			vLength <<= 1;
+
+		mValues = (T[]) new Object[vLength];
+		mSequences = new AtomicLongArray(vLength);
+		for (int i = 0; i < vLength; i++)
+			mSequences.set(i, i);
+		mMask = vLength - 1;
+		mHead = new PaddedSequence(0);
+		mTail = new PaddedSequence(0);
+		mWaitStrategy = pWaitStrategy;
+	}
+	
+	// Public methods
+
+	/**
+	 * @return the number of values this buffer can hold.
+	 */
+	public int capacity() {
+		return mValues.length;
+	}
+	
+	/**
+	 * Add a new value to the queue.
+	 */
+	@Override
+	public void put(T pValue) throws InterruptedException {
+		int vAttempt = 0;
+		while (true) {
+			long vTail = mTail.get();
+			int vIndex = (int) vTail & mMask;
+			long vDifference = mSequences.get(vIndex) - vTail;
+			
+			if (vDifference == 0) {
+				// The slot is free, so try to claim it.
+				if (mTail.compareAndSet(vTail, vTail + 1)) {
+					mValues[vIndex] = pValue;
+					mSequences.lazySet(vIndex, vTail + 1);
+					return;
+				}
+			} else if (vDifference < 0) {
+				// The slot still holds the value put one lap ago, so the buffer is full.
+				if (Thread.interrupted())
+					throw new InterruptedException();
+				mWaitStrategy.idle(vAttempt);
+				if (vAttempt < Integer.MAX_VALUE)
+					vAttempt++;
+			}
+			
+			// Otherwise another producer got here first, so try again.
+		}
+	}
+	
+	/**
+	 * Add a new value to the queue if there is space for it, without waiting.
+	 */
+	@Override
+	public boolean offer(T pValue) {
+		while (true) {
+			long vTail = mTail.get();
+			int vIndex = (int) vTail & mMask;
+			long vDifference = mSequences.get(vIndex) - vTail;
+			
+			if (vDifference == 0) {
+				if (mTail.compareAndSet(vTail, vTail + 1)) {
+					mValues[vIndex] = pValue;
+					mSequences.lazySet(vIndex, vTail + 1);
+					return true;
+				}
+			} else if (vDifference < 0) {
+				return false;
+			}
+		}
+	}
+	
+	/**
+	 * Remove a value from the queue and return it.
+	 */
+	@Override
+	public T get() throws InterruptedException {
+		int vAttempt = 0;
+		while (true) {
+			long vHead = mHead.get();
+			int vIndex = (int) vHead & mMask;
+			long vDifference = mSequences.get(vIndex) - (vHead + 1);
+			
+			if (vDifference == 0) {
+				// The slot is full, so try to claim it.
+				if (mHead.compareAndSet(vHead, vHead + 1)) {
+					T vResult = mValues[vIndex];
+					mValues[vIndex] = null;
+					mSequences.lazySet(vIndex, vHead + mValues.length);
+					return vResult;
+				}
+			} else if (vDifference < 0) {
+				// The slot hasn't been filled yet, so the buffer is empty.
+				if (Thread.interrupted())
+					throw new InterruptedException();
+				mWaitStrategy.idle(vAttempt);
+				if (vAttempt < Integer.MAX_VALUE)
+					vAttempt++;
+			}
+			
+			// Otherwise another consumer got here first, so try again.
+		}
+	}
+	
+	/**
+	 * Remove a value from the queue and return it if there is one, without waiting.
+	 */
+	@Override
+	public T poll() {
+		while (true) {
+			long vHead = mHead.get();
+			int vIndex = (int) vHead & mMask;
+			long vDifference = mSequences.get(vIndex) - (vHead + 1);
+			
+			if (vDifference == 0) {
+				if (mHead.compareAndSet(vHead, vHead + 1)) {
+					T vResult = mValues[vIndex];
+					mValues[vIndex] = null;
+					mSequences.lazySet(vIndex, vHead + mValues.length);
+					return vResult;
+				}
+			} else if (vDifference < 0) {
+				return null;
+			}
+		}
+	}
+}
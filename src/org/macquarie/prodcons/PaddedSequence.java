@@ -0,0 +1,138 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.prodcons;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Padding which sits in front of the value of a {@link PaddedSequence}.
+ */
+abstract class SequenceLeftPadding {
+	protected long p01, p02, p03, p04, p05, p06, p07;
+}
+
+/**
+ * The fields of a {@link PaddedSequence}, separated from those of any
+ * neighbouring objects by padding on either side.
+ */
+abstract class SequenceFields extends SequenceLeftPadding {
+
+	/**
+	 * The current value of this sequence.
+	 */
+	protected volatile long mValue;
+
+	/**
+	 * A private cache, used only by the thread which owns this sequence,
+	 * holding the last value it saw of the sequence at the other end of
+	 * the buffer.
+	 */
+	protected long mCached;
+}
+
+/**
+ * <p>A sequence counter which is padded out so that it occupies a cache line
+ * of its own. Counters which are written by different threads but which
+ * happen to share a cache line will force that line to bounce between
+ * processor cores on every write (so-called <em>false sharing</em>), even
+ * though neither thread ever reads the other's counter.</p>
+ *
+ * <p>Java gives us no direct control over object layout, but it does
+ * always lay out the fields of a superclass before those of its subclasses.
+ * So we sandwich the value between two groups of unused fields declared in
+ * a chain of classes, in the same way that the LMAX Disruptor does.</p>
+ *
+ * @author mq-soft-tech
+ *
+ */
+final class PaddedSequence extends SequenceFields {
+
+	// Static data members (constants)
+
+	/**
+	 * Handle used to perform ordered writes to {@link #mValue}.
+	 */
+	private static final VarHandle VALUE;
+
+	static {
+		try {
+			VALUE = MethodHandles.lookup().findVarHandle(
+					SequenceFields.class, "mValue", long.class);
+		} catch (ReflectiveOperationException pExn) {
+			throw new ExceptionInInitializerError(pExn);
+		}
+	}
+
+	// Data members (instance variables)
+
+	protected long p11, p12, p13, p14, p15, p16, p17;
+
+	// Constructors
+
+	/**
+	 * Create a sequence with a given initial value.
+	 *
+	 * @param pInitial the initial value.
+	 */
+	PaddedSequence(long pInitial) {
+		mValue = pInitial;
+		mCached = pInitial;
+	}
+
+	// Methods
+
+	/**
+	 * @return the current value of the sequence, read with volatile semantics.
+	 */
+	long get() {
+		return mValue;
+	}
+
+	/**
+	 * Set the value of this sequence with release semantics, the equivalent
+	 * of {@link java.util.concurrent.atomic.AtomicLong#lazySet(long)}. Any
+	 * writes made before this call will be visible to a thread which
+	 * subsequently reads the new value, but unlike a volatile write this does
+	 * not need a full memory fence.
+	 *
+	 * @param pValue the new value.
+	 */
+	void setRelease(long pValue) {
+		VALUE.setRelease(this, pValue);
+	}
+	
+	/**
+	 * Atomically set the value of this sequence to a new value, but only if 
+	 * it currently has an expected value. This is needed when more than one
+	 * thread may advance the same sequence.
+	 * 
+	 * @param pExpected the value the sequence is expected to have.
+	 * @param pValue the new value.
+	 * @return true if the sequence had the expected value and was updated.
+	 */
+	boolean compareAndSet(long pExpected, long pValue) {
+		return VALUE.compareAndSet(this, pExpected, pValue);
+	}
+}
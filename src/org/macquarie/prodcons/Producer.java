@@ -25,11 +25,20 @@ package org.macquarie.prodcons;
 
 import java.util.Random;
 
-public class Producer extends Thread {
+public class Producer implements Runnable {
 	
 	// Data members (instance variables)
 	
-	private BoundedBuffer<Integer> mBuffer;
+	/**
+	 * The buffer to write values to.
+	 */
+	private Buffer<Integer> mBuffer;
+	
+	/**
+	 * Whether to print each value produced. This is turned off when there are
+	 * so many tasks that printing would swamp everything else.
+	 */
+	private volatile boolean mVerbose = true;
 	
 	// Constructors
 	
@@ -39,15 +48,25 @@ public class Producer extends Thread {
 	 * 
 	 * @param pBuffer the buffer to write values to.
 	 */
-	Producer (BoundedBuffer<Integer> pBuffer) {
+	Producer (Buffer<Integer> pBuffer) {
 		mBuffer = pBuffer;
 	}
-
+	
 	// Methods
 	
+	/**
+	 * Turn the printing of each value produced on or off.
+	 * 
+	 * @param pVerbose true to print each value, false to stay quiet.
+	 */
+	void setVerbose(boolean pVerbose) {
+		mVerbose = pVerbose;
+	}
+	
 	/** 
-	 * The run method for this thread.
-	 * @see java.lang.Thread#run()
+	 * The run method for this task. It runs until the thread running it
+	 * is interrupted.
+	 * @see java.lang.Runnable#run()
 	 */
 	@Override
 	public void run() {
@@ -57,12 +76,12 @@ public class Producer extends Thread {
 		
 		// Surround our code with a try catch to handle thread interruptions.
 		try {
-			while (!interrupted()) {
+			while (!Thread.interrupted()) {
 				// Generate a random period to wait for.
 				long vWait = Math.abs(vRandom.nextInt()) % 1000;
 				
 				// Now sleep.
-				sleep(vWait);
+				Thread.sleep(vWait);
 				
 				// Generate a value to add to the buffer.
 				int vValue = vRandom.nextInt();
@@ -71,7 +90,8 @@ public class Producer extends Thread {
 				mBuffer.put(vValue);
 				
 				// And print it.
-				System.out.println("Value produced: " + vValue);
+				if (mVerbose)
+					System.out.println("Value produced: " + vValue);
 			}
 		} catch (InterruptedException pExn) {
 			// Nothing to do here, just exit.
@@ -0,0 +1,251 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.prodcons;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>A thread safe bounded buffer which keeps producers and consumers in 
+ * separate wait sets. It behaves just like {@link BoundedBuffer}, but it
+ * makes the optimisation that the comments in that class point out is
+ * missing.</p>
+ * 
+ * <p>{@link BoundedBuffer} uses a {@link ReentrantLock} with a single 
+ * {@link Condition}, <code>mChanged</code>, which producers and consumers 
+ * both wait on. So when it calls {@link Condition#signalAll()} it wakes every
+ * waiting thread: producers and consumers alike. When many threads share the
+ * buffer almost all of them wake up, find that they still can't proceed, and
+ * go straight back to waiting. This is known as the <em>thundering herd</em>
+ * problem.</p>
+ * 
+ * <p>Here we use the same kind of lock, but give it two {@link Condition} 
+ * objects, each with its own wait set, so producers wait on 
+ * <code>mNotFull</code> and consumers wait on <code>mNotEmpty</code>. We
+ * also count the threads that are waiting on each condition, in 
+ * <code>mWaitingProducers</code> and <code>mWaitingConsumers</code>. Each 
+ * value put signals <code>mNotEmpty</code> if, and only if, the count of
+ * waiting consumers is non-zero, and each value taken signals 
+ * <code>mNotFull</code> if the count of waiting producers is non-zero. So
+ * when nobody is waiting, as is usual when the buffer is neither full nor 
+ * empty, no signal is sent at all. And we only {@link Condition#signal()} one
+ * thread at a time: each value put makes room for just one consumer to 
+ * proceed, and each value taken makes room for just one producer.</p>
+ * 
+ * @author mq-soft-tech
+ *
+ */
+public class SplitConditionBoundedBuffer<T> implements Buffer<T> {
+
+	// Data members (instance variables)
+
+	/**
+	 * The array of values stored in this buffer, its length is a power of two.
+	 */
+	private final T[] mValues;
+	
+	/**
+	 * Mask used to convert a position in the buffer into an index into 
+	 * <code>mValues</code>.
+	 */
+	private final int mMask;
+	
+	/**
+	 * The number of values the buffer can hold.
+	 */
+	private final int mCapacity;
+	
+	/**
+	 * Position of the first free location in the buffer.
+	 */
+	private int mNext;
+	
+	/**
+	 * Position of value at head of the queue.
+	 */
+	private int mHead;
+	
+	/**
+	 * The lock which guards all of the state of this buffer.
+	 */
+	private final ReentrantLock mLock = new ReentrantLock();
+	
+	/**
+	 * Producers wait on this condition until the buffer is no longer full.
+	 */
+	private final Condition mNotFull = mLock.newCondition();
+	
+	/**
+	 * Consumers wait on this condition until the buffer is no longer empty.
+	 */
+	private final Condition mNotEmpty = mLock.newCondition();
+	
+	/**
+	 * The number of producers waiting on <code>mNotFull</code>.
+	 */
+	private int mWaitingProducers;
+	
+	/**
+	 * The number of consumers waiting on <code>mNotEmpty</code>.
+	 */
+	private int mWaitingConsumers;
+	
+	// Constructors
+	
+	/**
+	 * Default constructor - makes an empty buffer which can hold
+	 * {@link BoundedBuffer#DEFAULT_CAPACITY} values.
+	 */
+	public SplitConditionBoundedBuffer () {
+		this(BoundedBuffer.DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Make an empty buffer.
+	 * 
+	 * @param pCapacity the number of values the buffer can hold.
+	 */
+	@SuppressWarnings("unchecked")
+	public SplitConditionBoundedBuffer (int pCapacity) {
+		if (pCapacity < 1 || pCapacity > (1 << 30))
+			throw new IllegalArgumentException("Capacity out of range: " + pCapacity);
+		
+		int vLength = 1;
+		while (vLength < pCapacity)
+			vLength <<= 1;
+		
+		mValues = (T[]) new Object[vLength];
+		mMask = vLength - 1;
+		mCapacity = pCapacity;
+		mNext = 0;
+		mHead = 0;
+	}
+	
+	// Public methods
+	
+	/**
+	 * @return the number of values the buffer can hold.
+	 */
+	public int capacity() {
+		return mCapacity;
+	}
+	
+	/**
+	 * Add a new value to the queue.
+	 */
+	@Override
+	public void put(T pValue) throws InterruptedException {
+		mLock.lockInterruptibly();
+		try {
+			// Wait on the not full condition until there is space.
+			while (mNext - mHead >= mCapacity) {
+				mWaitingProducers++;
+				try {
+					mNotFull.await();
+				} finally {
+					mWaitingProducers--;
+				}
+			}
+			
+			mValues[mNext++ & mMask] = pValue;
+			
+			// Wake a single consumer, but only if there is one waiting.
+			if (mWaitingConsumers > 0)
+				mNotEmpty.signal();
+		} finally {
+			mLock.unlock();
+		}
+	}
+	
+	/**
+	 * Add a new value to the queue if there is space for it, without waiting.
+	 */
+	@Override
+	public boolean offer(T pValue) {
+		mLock.lock();
+		try {
+			if (mNext - mHead >= mCapacity)
+				return false;
+			
+			mValues[mNext++ & mMask] = pValue;
+			if (mWaitingConsumers > 0)
+				mNotEmpty.signal();
+			return true;
+		} finally {
+			mLock.unlock();
+		}
+	}
+	
+	/**
+	 * Remove a value from the queue and return it.
+	 */
+	@Override
+	public T get() throws InterruptedException {
+		mLock.lockInterruptibly();
+		try {
+			// Wait on the not empty condition until there is a value.
+			while (mNext - mHead <= 0) {
+				mWaitingConsumers++;
+				try {
+					mNotEmpty.await();
+				} finally {
+					mWaitingConsumers--;
+				}
+			}
+			
+			int vIndex = mHead++ & mMask;
+			T vResult = mValues[vIndex];
+			mValues[vIndex] = null;
+			
+			// Wake a single producer, but only if there is one waiting.
+			if (mWaitingProducers > 0)
+				mNotFull.signal();
+			
+			return vResult;
+		} finally {
+			mLock.unlock();
+		}
+	}
+	
+	/**
+	 * Remove a value from the queue and return it if there is one, without waiting.
+	 */
+	@Override
+	public T poll() {
+		mLock.lock();
+		try {
+			if (mNext - mHead <= 0)
+				return null;
+			
+			int vIndex = mHead++ & mMask;
+			T vResult = mValues[vIndex];
+			mValues[vIndex] = null;
+			if (mWaitingProducers > 0)
+				mNotFull.signal();
+			return vResult;
+		} finally {
+			mLock.unlock();
+		}
+	}
+}
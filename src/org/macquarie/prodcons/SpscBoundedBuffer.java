@@ -0,0 +1,238 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.prodcons;
+
+/**
+ * <p>A lock free bounded buffer which may safely be shared between exactly
+ * one producer thread and exactly one consumer thread. It offers the same
+ * {@link #put(Object)} / {@link #get()} contract as {@link BoundedBuffer},
+ * but neither method ever acquires a lock.</p>
+ *
+ * <p>The buffer is a circular array whose length is a power of two, so we
+ * can find the slot for a sequence number by masking off its low bits rather
+ * than by using the (much slower) <code>%</code> operator. Two counters
+ * are used to keep track of the buffer's state:</p>
+ *
+ * <ul>
+ * <li><code>mTail</code> counts the values ever put, and is only written by the
+ * producer.</li>
+ * <li><code>mHead</code> counts the values ever taken, and is only written by the
+ * consumer.</li>
+ * </ul>
+ *
+ * <p>Because each counter has a single writer we don't need any atomic
+ * read-modify-write operations. The producer stores a value into its slot and
+ * then publishes it by advancing <code>mTail</code> with an ordered write
+ * (see {@link PaddedSequence#setRelease(long)}); the consumer reads
+ * <code>mTail</code> before it reads the slot, so it is guaranteed to see the
+ * value that was stored. The same argument, with roles reversed, stops the
+ * producer from overwriting a slot before the consumer has finished with it.</p>
+ *
+ * <p>Each thread also keeps a private copy of the last value it read of the
+ * other thread's counter, and only re-reads that counter when the copy says the
+ * buffer is full (or empty). So while the buffer is neither full nor empty the
+ * two threads don't touch each other's cache lines at all.</p>
+ *
+ * <p>When a thread does have to wait, it uses a {@link WaitStrategy} rather than
+ * {@link Object#wait()}.</p>
+ *
+ * <p><strong>Note:</strong> this class is <em>not</em> safe if more than one
+ * thread calls {@link #put(Object)}, or more than one thread calls
+ * {@link #get()}.</p>
+ *
+ * @author mq-soft-tech
+ *
+ */
+public class SpscBoundedBuffer<T> implements Buffer<T> {
+
+	// Data members (instance variables)
+
+	/**
+	 * The array of values stored in this buffer.
+	 */
+	private final T[] mValues;
+
+	/**
+	 * Mask used to convert a sequence number into an index into
+	 * <code>mValues</code>.
+	 */
+	private final int mMask;
+
+	/**
+	 * Sequence number of the next value to be taken by the consumer. Its cached
+	 * value is the consumer's copy of <code>mTail</code>.
+	 */
+	private final PaddedSequence mHead;
+
+	/**
+	 * Sequence number of the next value to be put by the producer. Its cached
+	 * value is the producer's copy of <code>mHead</code>.
+	 */
+	private final PaddedSequence mTail;
+
+	/**
+	 * How the producer and consumer wait when the buffer is full or empty.
+	 */
+	private final WaitStrategy mWaitStrategy;
+
+	// Constructors
+
+	/**
+	 * Make an empty buffer which uses the {@link WaitStrategy#BACKOFF} strategy.
+	 *
+	 * @param pCapacity the minimum number of values the buffer can hold. This
+	 *        is rounded up to the next power of two.
+	 */
+	public SpscBoundedBuffer(int pCapacity) {
+		this(pCapacity, WaitStrategy.BACKOFF);
+	}
+
+	/**
+	 * Make an empty buffer.
+	 *
+	 * @param pCapacity the minimum number of values the buffer can hold. This
+	 *        is rounded up to the next power of two.
+	 * @param pWaitStrategy how to wait when the buffer is full or empty.
+	 */
+	@SuppressWarnings("unchecked")
+	public SpscBoundedBuffer(int pCapacity, WaitStrategy pWaitStrategy) {
+		if (pCapacity < 1 || pCapacity > (1 << 30))
+			throw new IllegalArgumentException("Capacity out of range: " + pCapacity);
+		if (pWaitStrategy == null)
+			throw new NullPointerException("Wait strategy must not be null");
+
+		int vLength = 1;
+		while (vLength < pCapacity)
+			vLength <<= 1;
+
+		mValues = (T[]) new Object[vLength];
+		mMask = vLength - 1;
+		mHead = new PaddedSequence(0);
+		mTail = new PaddedSequence(0);
+		mWaitStrategy = pWaitStrategy;
+	}
+
+	// Public methods
+
+	/**
+	 * @return the number of values this buffer can hold.
+	 */
+	public int capacity() {
+		return mValues.length;
+	}
+
+	/**
+	 * Add a new value to the queue. Must only ever be called from the one
+	 * producer thread.
+	 */
+	@Override
+	public void put(T pValue) throws InterruptedException {
+		long vTail = mTail.get();
+		long vWrapPoint = vTail - mValues.length;
+
+		// Only look at the consumer's counter if our cached copy of it says
+		// that the buffer is full.
+		if (mTail.mCached <= vWrapPoint) {
+			int vAttempt = 0;
+			while ((mTail.mCached = mHead.get()) <= vWrapPoint) {
+				if (Thread.interrupted())
+					throw new InterruptedException();
+				mWaitStrategy.idle(vAttempt);
+				if (vAttempt < Integer.MAX_VALUE)
+					vAttempt++;
+			}
+		}
+
+		// Store the value, and then publish it to the consumer.
+		mValues[(int) vTail & mMask] = pValue;
+		mTail.setRelease(vTail + 1);
+	}
+
+	/**
+	 * Add a new value to the queue if there is space for it, without waiting.
+	 * Must only ever be called from the one producer thread.
+	 */
+	@Override
+	public boolean offer(T pValue) {
+		long vTail = mTail.get();
+		long vWrapPoint = vTail - mValues.length;
+
+		if (mTail.mCached <= vWrapPoint && (mTail.mCached = mHead.get()) <= vWrapPoint)
+			return false;
+
+		mValues[(int) vTail & mMask] = pValue;
+		mTail.setRelease(vTail + 1);
+		return true;
+	}
+
+	/**
+	 * Remove a value from the queue and return it. Must only ever be called
+	 * from the one consumer thread.
+	 */
+	@Override
+	public T get() throws InterruptedException {
+		long vHead = mHead.get();
+
+		// Only look at the producer's counter if our cached copy of it says
+		// that the buffer is empty.
+		if (mHead.mCached <= vHead) {
+			int vAttempt = 0;
+			while ((mHead.mCached = mTail.get()) <= vHead) {
+				if (Thread.interrupted())
+					throw new InterruptedException();
+				mWaitStrategy.idle(vAttempt);
+				if (vAttempt < Integer.MAX_VALUE)
+					vAttempt++;
+			}
+		}
+
+		// Take the value, clearing the slot so we don't keep the value
+		// reachable, and then hand the slot back to the producer.
+		int vIndex = (int) vHead & mMask;
+		T vResult = mValues[vIndex];
+		mValues[vIndex] = null;
+		mHead.setRelease(vHead + 1);
+
+		return vResult;
+	}
+
+	/**
+	 * Remove a value from the queue and return it if there is one, without
+	 * waiting. Must only ever be called from the one consumer thread.
+	 */
+	@Override
+	public T poll() {
+		long vHead = mHead.get();
+
+		if (mHead.mCached <= vHead && (mHead.mCached = mTail.get()) <= vHead)
+			return null;
+
+		int vIndex = (int) vHead & mMask;
+		T vResult = mValues[vIndex];
+		mValues[vIndex] = null;
+		mHead.setRelease(vHead + 1);
+
+		return vResult;
+	}
+}
@@ -0,0 +1,103 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.prodcons;
+
+import java.io.PrintStream;
+
+/**
+ * <p>Prints lines of the form <code>"Value produced: 1234"</code> without
+ * creating any objects. Printing an <code>int</code> in the usual way, with
+ * <code>"Value produced: " + vValue</code> or even 
+ * {@link PrintStream#println(int)}, first turns it into a new {@link String}.
+ * That would undo the work {@link IntBoundedBuffer} does to avoid boxing
+ * each value. Instead, we format the digits into a byte array which is 
+ * reused for every line, and write the bytes straight out.</p>
+ *
+ * <p>This class is not thread safe, so each task should have its own.</p>
+ *
+ * @author mq-soft-tech
+ *
+ */
+final class ValueLog {
+
+	// Data members (instance variables)
+
+	/**
+	 * The stream to print to.
+	 */
+	private final PrintStream mOut;
+
+	/**
+	 * The line being printed. It starts with the prefix, which never changes,
+	 * and has room after that for any <code>int</code> and a newline.
+	 */
+	private final byte[] mLine;
+
+	/**
+	 * The number of bytes in the prefix.
+	 */
+	private final int mPrefixLength;
+
+	// Constructors
+
+	/**
+	 * Make a log which prints to {@link System#out}.
+	 *
+	 * @param pPrefix the text to print before each value. This must be
+	 *        plain ASCII.
+	 */
+	ValueLog(String pPrefix) {
+		mOut = System.out;
+		mPrefixLength = pPrefix.length();
+		mLine = new byte[mPrefixLength + 12];
+		for (int i = 0; i < mPrefixLength; i++)
+			mLine[i] = (byte) pPrefix.charAt(i);
+	}
+
+	// Methods
+
+	/**
+	 * Print a line holding the prefix followed by a value.
+	 *
+	 * @param pValue the value to print.
+	 */
+	void println(int pValue) {
+		// Count the digits, working with the negative of the value since
+		// every int can be negated to give a value which is zero or less.
+		int vRest = (pValue > 0) ? -pValue : pValue;
+		int vDigits = 1;
+		for (int vScan = vRest / 10; vScan != 0; vScan /= 10)
+			vDigits++;
+		
+		int vEnd = mPrefixLength + ((pValue < 0) ? 1 : 0) + vDigits;
+		if (pValue < 0)
+			mLine[mPrefixLength] = '-';
+		for (int i = vEnd - 1; i >= vEnd - vDigits; i--) {
+			mLine[i] = (byte) ('0' - (vRest % 10));
+			vRest /= 10;
+		}
+		mLine[vEnd] = '\n';
+		mOut.write(mLine, 0, vEnd + 1);
+	}
+}
@@ -0,0 +1,124 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.prodcons;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>Strategies which a lock free buffer may use to pass the time while
+ * it waits for the thread at the other end of the buffer to catch up.</p>
+ *
+ * <p>A waiting thread calls {@link #idle(int)} repeatedly, passing the
+ * number of times it has already done so, and re-checks the state of the
+ * buffer in between. None of these strategies relies upon being woken by
+ * another thread, so the thread at the other end never has to pay for a
+ * {@link Object#notifyAll()} or an unpark. The price is that a waiting
+ * thread only notices that it can proceed the next time it checks, so even
+ * {@link #BACKOFF} is a timed backoff rather than a true blocking wait.</p>
+ *
+ * <ul>
+ * <li>{@link #SPIN} - lowest latency, but burns a whole core while waiting.</li>
+ * <li>{@link #YIELD} - spins briefly and then offers the core to other threads.</li>
+ * <li>{@link #BACKOFF} - spins, then yields, then sleeps for a fixed short 
+ * period (50&micro;s) between checks. This is the friendliest to other work 
+ * on the machine, but adds up to that period to the time taken to notice 
+ * that the buffer has changed.</li>
+ * </ul>
+ *
+ * @author mq-soft-tech
+ *
+ */
+public enum WaitStrategy {
+
+	/**
+	 * Busy wait, hinting to the processor that we are in a spin loop.
+	 */
+	SPIN {
+		@Override
+		public void idle(int pAttempt) {
+			Thread.onSpinWait();
+		}
+	},
+
+	/**
+	 * Busy wait for a while, then yield the processor on each attempt.
+	 */
+	YIELD {
+		@Override
+		public void idle(int pAttempt) {
+			if (pAttempt < SPIN_TRIES)
+				Thread.onSpinWait();
+			else
+				Thread.yield();
+		}
+	},
+
+	/**
+	 * Busy wait, then yield, and finally park the thread for a fixed short
+	 * period on each attempt. Nobody unparks the thread early, so this is 
+	 * polling with a timed backoff.
+	 */
+	BACKOFF {
+		@Override
+		public void idle(int pAttempt) {
+			if (pAttempt < SPIN_TRIES)
+				Thread.onSpinWait();
+			else if (pAttempt < SPIN_TRIES + YIELD_TRIES)
+				Thread.yield();
+			else
+				LockSupport.parkNanos(PARK_NANOS);
+		}
+	};
+
+	// Static data members (constants)
+
+	/**
+	 * Number of attempts for which the spinning strategies busy wait before
+	 * backing off.
+	 */
+	private static final int SPIN_TRIES = 100;
+
+	/**
+	 * Number of attempts for which {@link #BACKOFF} yields before it starts parking.
+	 */
+	private static final int YIELD_TRIES = 100;
+
+	/**
+	 * Length of each park made by {@link #BACKOFF}, in nanoseconds.
+	 */
+	private static final long PARK_NANOS = 50_000;
+
+	// Methods
+
+	/**
+	 * Wait for a little while before the caller checks the state of the
+	 * buffer again.
+	 *
+	 * @param pAttempt the number of times the caller has already called this
+	 *        method during its current wait. The caller should stop counting
+	 *        at {@link Integer#MAX_VALUE}, since if the count wrapped round to
+	 *        a negative number a long wait would turn back into a busy spin.
+	 */
+	public abstract void idle(int pAttempt);
+}
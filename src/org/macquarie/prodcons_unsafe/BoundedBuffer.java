@@ -26,6 +26,15 @@ public class BoundedBuffer<T> {
 		mNext++;		
 	}
 	
+	public boolean offer(T pValue) {
+		if (mNext - mHead >= CAPACITY)
+			return false;
+		
+		mValues[mNext % CAPACITY] = pValue;
+		mNext++;
+		return true;
+	}
+	
 	public T get() throws InterruptedException {
 		// First check to see if there is anything in the buffer.
 		while (mNext - mHead <= 0) {
@@ -45,4 +54,16 @@ public class BoundedBuffer<T> {
 		// And return the retrieved value.
 		return vResult;
 	}
+	
+	public T poll() {
+		if (mNext - mHead <= 0)
+			return null;
+		
+		T vResult = mValues[mHead++];
+		if (mHead >= CAPACITY) {
+			mHead -= CAPACITY;
+			mNext -= CAPACITY;
+		}
+		return vResult;
+	}
 }
@@ -0,0 +1,209 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.threadgate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>A thread gate which behaves just like {@link ThreadGate}, but which never 
+ * acquires a lock. This matters when hundreds of threads are using the same 
+ * gate, since with {@link ThreadGate} every one of them has to queue up for 
+ * the gate's lock whenever it calls {@link ThreadGate#await()}, even if it only
+ * holds that lock for an instant.</p>
+ * 
+ * <p>Rather than keeping the openness flag and the generation counter in two 
+ * separate fields, and using a lock to keep them consistent, we pack both of
+ * them into a single <code>long</code> value held in an {@link AtomicLong}. The
+ * lowest bit is the openness flag and the remaining bits are the generation
+ * counter. So both may be read, or updated, together in a single atomic 
+ * operation.</p>
+ * 
+ * <p>Since we have no lock we can't use its wait set either. Instead a thread 
+ * which has to wait pushes a small node, recording which thread it is, onto a
+ * lock free stack (a so-called <em>Treiber stack</em>) and then parks itself using
+ * {@link LockSupport#park(Object)}. When the gate is opened we first advance the
+ * generation and then atomically take the whole stack, unparking each of the
+ * threads on it - exactly those threads that were waiting for this generation.</p>
+ * 
+ * <p>Take care over the order in which things happen here. A waiting thread
+ * pushes its node and only then checks the state of the gate one last time 
+ * before it parks. An opening thread changes the state and only then takes 
+ * the stack. So either the opener finds the waiter's node and unparks it, or
+ * the waiter sees the new state and doesn't park at all. No wakeup can be lost.</p>
+ * 
+ * @author mq-soft-tech
+ *
+ */
+public class LockFreeThreadGate {
+
+	// Static data members (constants)
+	
+	/**
+	 * The bit of the state which holds the openness flag.
+	 */
+	private static final long OPEN = 1L;
+	
+	/**
+	 * Adding this to the state advances the generation counter by one.
+	 */
+	private static final long ONE_GENERATION = 2L;
+	
+	// Data members (instance variables)
+	
+	/**
+	 * The state of this gate, packing together the openness flag (lowest bit)
+	 * and the generation counter (all of the other bits).
+	 */
+	private final AtomicLong mState = new AtomicLong(0);
+	
+	/**
+	 * The top of the stack of threads waiting for the gate to open.
+	 */
+	private final AtomicReference<WaitNode> mWaiters = new AtomicReference<WaitNode>();
+	
+	// Constructor
+	
+	/**
+	 * Default constructor. Initialises the gate in the closed state.
+	 */
+	public LockFreeThreadGate() {
+	}
+	
+	// Methods
+	
+	/**
+	 * Close the gate. The generation counter is left unchanged.
+	 */
+	public void close() {
+		long vState;
+		do {
+			vState = mState.get();
+		} while ((vState & OPEN) != 0 && !mState.compareAndSet(vState, vState & ~OPEN));
+	}
+	
+	/**
+	 * Open the gate, advance the generation counter and release all of the
+	 * threads waiting at the gate.
+	 */
+	public void open() {
+		mState.getAndUpdate(pState -> ((pState & ~OPEN) + ONE_GENERATION) | OPEN);
+		releaseWaiters();
+	}
+	
+	/**
+	 * Release all of the threads currently waiting at the gate, by advancing 
+	 * the generation counter, but leave the gate closed.
+	 */
+	public void openThenClose() {
+		mState.getAndUpdate(pState -> (pState & ~OPEN) + ONE_GENERATION);
+		releaseWaiters();
+	}
+	
+	/**
+	 * Wait until the gate is opened, or until the generation counter has advanced
+	 * since this method was called.
+	 *
+	 * @throws InterruptedException
+	 */
+	public void await() throws InterruptedException {
+		long vState = mState.get();
+		if ((vState & OPEN) != 0)
+			return;
+		
+		long vArrived = vState >>> 1;
+		WaitNode vNode = null;
+		
+		while (true) {
+			vState = mState.get();
+			if ((vState & OPEN) != 0 || (vState >>> 1) != vArrived) {
+				// Make sure we aren't unparked later, once we're no longer waiting.
+				if (vNode != null)
+					vNode.mThread = null;
+				return;
+			}
+			
+			if (vNode == null) {
+				// Push ourselves onto the stack of waiters, then check the state
+				// one last time before we park.
+				vNode = new WaitNode(Thread.currentThread());
+				WaitNode vTop;
+				do {
+					vTop = mWaiters.get();
+					vNode.mNext = vTop;
+				} while (!mWaiters.compareAndSet(vTop, vNode));
+			} else {
+				LockSupport.park(this);
+				if (Thread.interrupted()) {
+					// Make sure we aren't unparked later, once we're no longer waiting.
+					vNode.mThread = null;
+					throw new InterruptedException();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @return <code>true</code> if the gate is currently open and
+	 * <code>false</code> otherwise.
+	 */
+	public boolean isOpen() {
+		return (mState.get() & OPEN) != 0;
+	}
+	
+	/**
+	 * Take the whole stack of waiting threads, leaving it empty, and unpark
+	 * each of them.
+	 */
+	private void releaseWaiters() {
+		WaitNode vNode = mWaiters.getAndSet(null);
+		while (vNode != null) {
+			Thread vThread = vNode.mThread;
+			if (vThread != null)
+				LockSupport.unpark(vThread);
+			vNode = vNode.mNext;
+		}
+	}
+	
+	/**
+	 * A node in the stack of waiting threads.
+	 */
+	private static final class WaitNode {
+		
+		/**
+		 * The waiting thread, or <code>null</code> if it has given up waiting.
+		 */
+		volatile Thread mThread;
+		
+		/**
+		 * The next node down the stack.
+		 */
+		WaitNode mNext;
+		
+		WaitNode(Thread pThread) {
+			mThread = pThread;
+		}
+	}
+}
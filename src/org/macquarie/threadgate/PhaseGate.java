@@ -0,0 +1,296 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.threadgate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>A phase gate lets a group of threads, called <em>parties</em>, work through a
+ * series of phases in step with each other. Each party does its share of the work 
+ * of a phase and then calls {@link Party#arriveAndAwait(int)}, which suspends it 
+ * until every registered party has arrived. Then the gate advances to the next 
+ * phase and all of them are released together. Parties may {@link #register()}
+ * and {@link Party#deregister()} at any time, so the size of the group can change
+ * from one phase to the next.</p>
+ * 
+ * <p>This is built on top of a {@link ThreadGate}, which it keeps to itself. The
+ * phase number is simply that gate's generation counter, and advancing to the 
+ * next phase is done by calling {@link ThreadGate#openThenClose()}, which releases
+ * every thread waiting for the current generation to end. So all of the gate's 
+ * {@link WaitStrategy} options are available here too. Nobody else can get at
+ * the gate, so nobody can open it and let the parties skip through a phase
+ * without waiting for each other.</p>
+ * 
+ * <p>The interesting part is counting arrivals. With hundreds of parties on many
+ * cores a single shared counter would become a bottleneck, since every core would
+ * be fighting over the cache line that holds it. Instead we use a two level tree
+ * of counters. Each party is assigned to one of a number of <em>leaf</em> counters,
+ * each on a cache line of its own, which count down the parties that have yet to 
+ * arrive. Only when a leaf reaches zero does the last party to arrive there go on
+ * to count down the <em>root</em> counter, which records how many leaves are yet 
+ * to finish. So the root sees one update per leaf rather than one per party, and 
+ * the party which takes the root to zero advances the phase.</p>
+ * 
+ * <p>Registration and advancing the phase are rare, so they are done while holding
+ * the phase gate's lock, which keeps the counters consistent while they are being reset.
+ * Arrivals, which are frequent, never need the lock except to advance the phase.</p>
+ * 
+ * @author mq-soft-tech
+ *
+ */
+public class PhaseGate {
+
+	// Static data members (constants)
+	
+	/**
+	 * The largest number of leaf counters we will use.
+	 */
+	private static final int MAX_LEAVES = 64;
+	
+	// Data members (instance variables)
+	
+	/**
+	 * The gate the parties wait at. Its generation counter is the phase number.
+	 */
+	private final ThreadGate mGate;
+	
+	/**
+	 * The leaf counters, each counting down the parties assigned to it which
+	 * have yet to arrive in the current phase.
+	 */
+	private final Leaf[] mLeaves;
+	
+	/**
+	 * The root counter, counting down the leaves which have parties yet to 
+	 * arrive in the current phase.
+	 */
+	private final AtomicInteger mUnarrivedLeaves = new AtomicInteger(0);
+	
+	/**
+	 * The leaf to which the next party to register will be assigned.
+	 */
+	private int mNextLeaf = 0;
+	
+	// Constructors
+	
+	/**
+	 * Make a phase gate, with no parties registered, which is in phase 0 and 
+	 * uses {@link WaitStrategy#BLOCKING}. 
+	 */
+	public PhaseGate() {
+		this(WaitStrategy.BLOCKING);
+	}
+	
+	/**
+	 * Make a phase gate, with no parties registered, which is in phase 0.
+	 * 
+	 * @param pWaitStrategy how parties should wait for the other parties to arrive.
+	 */
+	public PhaseGate(WaitStrategy pWaitStrategy) {
+		mGate = new ThreadGate(pWaitStrategy);
+		
+		int vLeaves = 1;
+		while (vLeaves < Runtime.getRuntime().availableProcessors() && vLeaves < MAX_LEAVES)
+			vLeaves <<= 1;
+		
+		mLeaves = new Leaf[vLeaves];
+		for (int i = 0; i < vLeaves; i++)
+			mLeaves[i] = new Leaf();
+	}
+	
+	// Methods
+	
+	/**
+	 * @return the number of the current phase.
+	 */
+	public int getPhase() {
+		return mGate.getGeneration();
+	}
+	
+	/**
+	 * Register a new party with this gate. The new party must arrive in the
+	 * current phase, and each phase after it, until it is deregistered.
+	 * 
+	 * @return the new party.
+	 */
+	public synchronized Party register() {
+		Leaf vLeaf = mLeaves[mNextLeaf];
+		mNextLeaf = (mNextLeaf + 1) % mLeaves.length;
+		
+		vLeaf.mRegistered++;
+		
+		// If the leaf had no parties left to arrive then it has already counted
+		// down the root (or was never counted), so count it back up again.
+		if (vLeaf.getAndIncrement() == 0)
+			mUnarrivedLeaves.incrementAndGet();
+		
+		return new Party(vLeaf, getPhase());
+	}
+	
+	/**
+	 * Count down the counters for a party arriving in a given phase, and 
+	 * advance the phase if it was the last party to arrive.
+	 * 
+	 * @param pLeaf the leaf to which the party is assigned.
+	 * @param pPhase the phase it is arriving in.
+	 */
+	private void arrive(Leaf pLeaf, int pPhase) {
+		if (pLeaf.decrementAndGet() == 0 && mUnarrivedLeaves.decrementAndGet() == 0)
+			advance(pPhase);
+	}
+	
+	/**
+	 * Advance from a given phase to the next. Before doing so we check that 
+	 * nothing has happened since the root counter reached zero - a new party
+	 * may have registered, or another party may already have advanced the phase.
+	 * 
+	 * @param pPhase the phase to advance from.
+	 */
+	private synchronized void advance(int pPhase) {
+		if (getPhase() != pPhase || mUnarrivedLeaves.get() != 0)
+			return;
+		
+		// Reset the counters ready for the next phase.
+		int vActiveLeaves = 0;
+		for (Leaf vLeaf : mLeaves) {
+			vLeaf.set(vLeaf.mRegistered);
+			if (vLeaf.mRegistered > 0)
+				vActiveLeaves++;
+		}
+		mUnarrivedLeaves.set(vActiveLeaves);
+		
+		// And release the parties waiting for this phase to end.
+		mGate.openThenClose();
+	}
+	
+	/**
+	 * A leaf counter. It extends {@link AtomicInteger}, whose value is the 
+	 * number of the leaf's parties yet to arrive, and adds padding so that
+	 * neighbouring leaves don't share a cache line.
+	 */
+	@SuppressWarnings("serial")
+	private static final class Leaf extends AtomicInteger {
+		
+		/**
+		 * The number of parties assigned to this leaf, guarded by the gate's lock.
+		 */
+		int mRegistered;
+		
+		long p01, p02, p03, p04, p05, p06, p07;
+	}
+	
+	/**
+	 * A party registered with a {@link PhaseGate}. Each party should be used by 
+	 * only one thread at a time.
+	 */
+	public final class Party {
+		
+		/**
+		 * The leaf counter to which this party is assigned.
+		 */
+		private final Leaf mLeaf;
+		
+		/**
+		 * The next phase in which this party is due to arrive.
+		 */
+		private int mDuePhase;
+		
+		/**
+		 * True once this party has been deregistered.
+		 */
+		private boolean mDeregistered;
+		
+		/**
+		 * True if this party was interrupted while waiting for the end of the
+		 * phase in which it last arrived, so it may wait for it again.
+		 */
+		private boolean mInterrupted;
+		
+		private Party(Leaf pLeaf, int pDuePhase) {
+			mLeaf = pLeaf;
+			mDuePhase = pDuePhase;
+		}
+		
+		/**
+		 * Arrive at the end of a phase, and wait until all of the other registered 
+		 * parties have arrived too.
+		 * 
+		 * @param pPhase the phase this party has just completed, which should be
+		 *        the current phase. If it is an earlier phase then that phase 
+		 *        is long over, so we return straight away.
+		 * @return the number of the phase which follows.
+		 * @throws IllegalStateException if this party has been deregistered or has
+		 *         already arrived in <code>pPhase</code>. The exception is a party
+		 *         which was interrupted while waiting for <code>pPhase</code> to end,
+		 *         which may call this method again to go back to waiting.
+		 * @throws IllegalArgumentException if <code>pPhase</code> is a later phase
+		 *         than the current one, which could never end since this party 
+		 *         has yet to arrive in the current phase.
+		 * @throws InterruptedException
+		 */
+		public int arriveAndAwait(int pPhase) throws InterruptedException {
+			if (mDeregistered)
+				throw new IllegalStateException("Party has been deregistered");
+			
+			int vPhase = getPhase();
+			if (pPhase < vPhase)
+				return vPhase;
+			if (pPhase > vPhase)
+				throw new IllegalArgumentException(
+						"Phase " + pPhase + " has not yet begun, current phase is " + vPhase);
+			if (pPhase < mDuePhase && !mInterrupted)
+				throw new IllegalStateException("Party has already arrived in phase " + pPhase);
+			
+			// Arrive, unless we already did so before being interrupted.
+			if (pPhase == mDuePhase) {
+				mDuePhase = pPhase + 1;
+				arrive(mLeaf, pPhase);
+			}
+			
+			// If we are interrupted this stays set, so we may come back and wait again.
+			mInterrupted = true;
+			mGate.awaitGeneration(pPhase);
+			mInterrupted = false;
+			return pPhase + 1;
+		}
+		
+		/**
+		 * Remove this party from the gate. If it has yet to arrive in the current
+		 * phase then it counts as having arrived, so the other parties aren't left
+		 * waiting for it.
+		 */
+		public void deregister() {
+			synchronized (PhaseGate.this) {
+				if (mDeregistered)
+					return;
+				mDeregistered = true;
+				mLeaf.mRegistered--;
+				
+				int vPhase = getPhase();
+				if (mDuePhase <= vPhase)
+					arrive(mLeaf, vPhase);
+			}
+		}
+	}
+}
@@ -24,6 +24,8 @@
 
 package org.macquarie.threadgate;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * <p>Thread gates allow us to pause a thread, or a group of threads, at a given point
  * and re-awaken it at a later time. This implementation of thread gates is taken
@@ -40,6 +42,12 @@ package org.macquarie.threadgate;
  * it was suspended. It does this by comparing the note it made when {@link #await()} was
  * called with the current gate opening number.</p>
  *
+ * <p>A gate may also be given a {@link WaitStrategy}, which allows threads to spin
+ * for a while before they are suspended. This is worthwhile when the gate is 
+ * usually reopened very soon after it is closed. The state of the gate is held in
+ * <code>volatile</code> fields, so a thread which finds the gate open can pass
+ * straight through it without acquiring the gate's lock at all.</p>
+ *
  * @author Dominic Verity
  *
  */
@@ -49,25 +57,47 @@ public class ThreadGate {
 
 	/**
 	 * Flag to indicate whether the gate is currently open (true) or closed (false).
+	 * This is only ever changed while holding the gate's lock, but it is volatile so
+	 * that it may be read without doing so.
 	 */
-	private boolean mIsOpen;
+	private volatile boolean mIsOpen;
 
 	/**
 	 * This field is used to count the number of times the gate is opened. This allows
 	 * us to keep track of when a thread starts waiting on the thread gate to open
 	 * so that we can make sure that we don't miss the gate opening when it is opened
-	 * and closed in quick succession.
+	 * and closed in quick succession. Like <code>mIsOpen</code> it is volatile
+	 * so that it may be read without holding the gate's lock.
+	 */
+	private volatile int mGeneration;
+	
+	/**
+	 * How threads wait for this gate to be opened.
 	 */
-	private int mGeneration;
+	private final WaitStrategy mWaitStrategy;
 
 	// Constructor
 
 	/**
-	 * Default constructor. Initialises the gate in the closed state.
+	 * Default constructor. Initialises the gate in the closed state, with
+	 * waiting threads being suspended straight away.
 	 */
 	public ThreadGate() {
+		this(WaitStrategy.BLOCKING);
+	}
+	
+	/**
+	 * Initialise the gate in the closed state, with a given strategy for 
+	 * waiting for it to open.
+	 *
+	 * @param pWaitStrategy how threads should wait for the gate to open.
+	 */
+	public ThreadGate(WaitStrategy pWaitStrategy) {
+		if (pWaitStrategy == null)
+			throw new NullPointerException("Wait strategy must not be null");
 		mGeneration = 0;
 		mIsOpen = false;
+		mWaitStrategy = pWaitStrategy;
 	}
 
 	// Methods
@@ -113,13 +143,77 @@ public class ThreadGate {
 	 * that thread is finally woken we allow it to proceed if the generation counter has been
 	 * advanced.
 	 *
+	 * <p>If the gate is already open we return straight away, without acquiring
+	 * the gate's lock. Otherwise we check the gate repeatedly, as dictated by the
+	 * gate's {@link WaitStrategy}, until either it lets us through or the strategy
+	 * tells us to stop spinning and wait in the gate's wait set.</p>
+	 *
 	 * @throws InterruptedException
 	 *
 	 */
-	public synchronized void await() throws InterruptedException {
+	public void await() throws InterruptedException {
+		// Fast path, the gate is already open.
+		if (mIsOpen)
+			return;
+		
+		awaitGeneration(mGeneration);
+	}
+
+	/**
+	 * Wait until the gate is opened, just as {@link #await()} does, but give up
+	 * if that hasn't happened within a given time.
+	 *
+	 * @param pTimeout the longest time to wait.
+	 * @param pUnit the unit <code>pTimeout</code> is measured in.
+	 * @return true if the thread was let through the gate, false if the time
+	 *         ran out first.
+	 * @throws InterruptedException
+	 */
+	public boolean await(long pTimeout, TimeUnit pUnit) throws InterruptedException {
+		return awaitUntil(System.nanoTime() + pUnit.toNanos(pTimeout));
+	}
+
+	/**
+	 * <p>Wait until the gate is opened, just as {@link #await()} does, but give up
+	 * if that hasn't happened by a given deadline.</p>
+	 *
+	 * <p>The deadline is measured by {@link System#nanoTime()}, which unlike the
+	 * time of day never jumps backwards or forwards. A thread which has to pass
+	 * through several gates within a fixed time can work out its deadline once
+	 * and pass it to each of them. That way the time spent at one gate is 
+	 * automatically taken off the time allowed at the next, and no time is lost
+	 * to rounding, as it would be if we recomputed a timeout for each gate.</p>
+	 *
+	 * @param pDeadline the value of {@link System#nanoTime()} at which to give up.
+	 * @return true if the thread was let through the gate, false if the deadline
+	 *         passed first.
+	 * @throws InterruptedException
+	 */
+	public boolean awaitUntil(long pDeadline) throws InterruptedException {
+		if (mIsOpen)
+			return true;
+		
 		int vArrived = mGeneration;
-		while (!(mIsOpen || vArrived < mGeneration))
-			wait();
+		int vAttempt = 0;
+		while (!canPass(vArrived)) {
+			if (Thread.interrupted())
+				throw new InterruptedException();
+			if (pDeadline - System.nanoTime() <= 0)
+				return false;
+			if (!mWaitStrategy.idle(vAttempt))
+				return blockingAwaitUntil(vArrived, pDeadline);
+			if (vAttempt < Integer.MAX_VALUE)
+				vAttempt++;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the number of times the gate has been opened, by either 
+	 * {@link #open()} or {@link #openThenClose()}.
+	 */
+	public int getGeneration() {
+		return mGeneration;
 	}
 
 	/**
@@ -129,4 +223,71 @@ public class ThreadGate {
 	public boolean isOpen() {
 		return mIsOpen;
 	}
+	
+	/**
+	 * Wait until a thread which arrived at the gate in a given generation may
+	 * pass through it, using the gate's {@link WaitStrategy}. This is how 
+	 * {@link PhaseGate} waits for the end of a phase: a party arrives, and
+	 * perhaps even comes back after being interrupted, some time after the 
+	 * phase began, but must wait for the generation in which it began.
+	 *
+	 * @param pArrived the value of the generation counter when the thread arrived.
+	 * @throws InterruptedException
+	 */
+	void awaitGeneration(int pArrived) throws InterruptedException {
+		int vAttempt = 0;
+		while (!canPass(pArrived)) {
+			if (Thread.interrupted())
+				throw new InterruptedException();
+			if (!mWaitStrategy.idle(vAttempt)) {
+				blockingAwait(pArrived);
+				return;
+			}
+			if (vAttempt < Integer.MAX_VALUE)
+				vAttempt++;
+		}
+	}
+
+	/**
+	 * Check whether a thread which arrived at the gate in a given generation
+	 * may now pass through it.
+	 *
+	 * @param pArrived the value of the generation counter when the thread arrived.
+	 * @return true if the gate is open or has been opened since the thread arrived.
+	 */
+	private boolean canPass(int pArrived) {
+		return mIsOpen || pArrived < mGeneration;
+	}
+	
+	/**
+	 * Wait in the gate's wait set until a thread which arrived at the gate in
+	 * a given generation may pass through it.
+	 *
+	 * @param pArrived the value of the generation counter when the thread arrived.
+	 */
+	private synchronized void blockingAwait(int pArrived) throws InterruptedException {
+		while (!canPass(pArrived))
+			wait();
+	}
+	
+	/**
+	 * Wait in the gate's wait set until a thread which arrived at the gate in
+	 * a given generation may pass through it, or until a deadline passes. We may
+	 * be woken many times, by {@link #notifyAll()} or spuriously, before either
+	 * happens, so each time we only wait for whatever time remains.
+	 *
+	 * @param pArrived the value of the generation counter when the thread arrived.
+	 * @param pDeadline the value of {@link System#nanoTime()} at which to give up.
+	 * @return true if the thread may pass, false if the deadline passed first.
+	 */
+	private synchronized boolean blockingAwaitUntil(int pArrived, long pDeadline) 
+			throws InterruptedException {
+		while (!canPass(pArrived)) {
+			long vRemaining = pDeadline - System.nanoTime();
+			if (vRemaining <= 0)
+				return false;
+			TimeUnit.NANOSECONDS.timedWait(this, vRemaining);
+		}
+		return true;
+	}
 }
@@ -0,0 +1,139 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.threadgate;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>Strategies which a {@link ThreadGate} may use to make a thread wait 
+ * for the gate to open.</p>
+ * 
+ * <p>Suspending a thread with {@link Object#wait()}, and later waking it
+ * again, involves the operating system and can take tens of microseconds. 
+ * If the gate is usually reopened sooner than that it is cheaper for a
+ * waiting thread to keep checking the state of the gate for a while first,
+ * that is to <em>spin</em>. The price is a processor core kept busy doing
+ * nothing useful while the thread spins.</p>
+ * 
+ * <ul>
+ * <li>{@link #BUSY_SPIN} - spin until the gate opens. Fastest, but uses up a core 
+ * per waiting thread, so only sensible when there are cores to spare.</li>
+ * <li>{@link #SPIN_THEN_YIELD} - spin for a while, then keep offering the
+ * core to other threads between checks.</li>
+ * <li>{@link #SPIN_THEN_PARK} - spin for a while, then park the thread for 
+ * short, increasing, periods between checks.</li>
+ * <li>{@link #BLOCKING} - wait in the gate's wait set straight away, as in
+ * the original design of the gate.</li>
+ * </ul>
+ * 
+ * @author mq-soft-tech
+ *
+ */
+public enum WaitStrategy {
+
+	/**
+	 * Spin until the gate opens.
+	 */
+	BUSY_SPIN {
+		@Override
+		boolean idle(int pAttempt) {
+			Thread.onSpinWait();
+			return true;
+		}
+	},
+	
+	/**
+	 * Spin for a while, then yield between checks.
+	 */
+	SPIN_THEN_YIELD {
+		@Override
+		boolean idle(int pAttempt) {
+			if (pAttempt < SPIN_TRIES)
+				Thread.onSpinWait();
+			else
+				Thread.yield();
+			return true;
+		}
+	},
+	
+	/**
+	 * Spin for a while, then park for short periods between checks.
+	 */
+	SPIN_THEN_PARK {
+		@Override
+		boolean idle(int pAttempt) {
+			if (pAttempt < SPIN_TRIES) {
+				Thread.onSpinWait();
+			} else {
+				// Double the length of each park, up to a limit.
+				int vShift = Math.min(pAttempt - SPIN_TRIES, MAX_PARK_SHIFT);
+				LockSupport.parkNanos(MIN_PARK_NANOS << vShift);
+			}
+			return true;
+		}
+	},
+	
+	/**
+	 * Don't spin at all, just wait in the gate's wait set.
+	 */
+	BLOCKING {
+		@Override
+		boolean idle(int pAttempt) {
+			return false;
+		}
+	};
+	
+	// Static data members (constants)
+	
+	/**
+	 * Number of checks for which the spinning strategies busy wait before
+	 * backing off.
+	 */
+	private static final int SPIN_TRIES = 1000;
+	
+	/**
+	 * Length of the first park made by {@link #SPIN_THEN_PARK}, in nanoseconds.
+	 */
+	private static final long MIN_PARK_NANOS = 1000;
+	
+	/**
+	 * The longest park made by {@link #SPIN_THEN_PARK} is 
+	 * <code>MIN_PARK_NANOS &lt;&lt; MAX_PARK_SHIFT</code> nanoseconds (about 1ms).
+	 */
+	private static final int MAX_PARK_SHIFT = 10;
+	
+	// Methods
+	
+	/**
+	 * Pass a little time before the caller checks the state of the gate again.
+	 * 
+	 * @param pAttempt the number of times the caller has already called this
+	 *        method while waiting, counting no further than 
+	 *        {@link Integer#MAX_VALUE} so that it never wraps round to a
+	 *        negative number and sends {@link #SPIN_THEN_PARK} back to spinning.
+	 * @return true if the caller should check the gate again, or false if it
+	 *         should stop spinning and wait in the gate's wait set.
+	 */
+	abstract boolean idle(int pAttempt);
+}
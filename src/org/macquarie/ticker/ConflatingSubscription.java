@@ -0,0 +1,263 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.ticker;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>A subscription to the quotes published by a {@link MarketFeed}, which
+ * delivers them to its subscriber on an {@link Executor} at whatever rate
+ * the subscriber asks for them.</p>
+ *
+ * <p>A subscriber which can't keep up doesn't need to see every tick, only
+ * the latest quote for each stock. So rather than queueing up the ticks 
+ * themselves, the subscription keeps one bit for each stock, which the 
+ * feed's shard threads set whenever that stock is updated. When the 
+ * subscriber wants more quotes, we clear some of the set bits and deliver a 
+ * fresh snapshot of the quote for each of those stocks. However many times
+ * a stock is updated in between, the subscriber only receives it once. 
+ * This is called <em>conflation</em>. It means that the work a subscriber
+ * has to do is bounded by the number of stocks which actually change, and
+ * that a slow subscriber never makes the feed queue up work or wait.</p>
+ *
+ * <p>The {@link Flow} rules say that calls to a subscriber must never 
+ * overlap. So all deliveries are made by a single drain task, which is
+ * handed to the executor when there is work to do. A counter of 
+ * <em>missed</em> requests for a drain makes sure that there is never more
+ * than one drain task running, and that none of the requests is lost. Even
+ * an error caused by a bad call to {@link #request(long)} is only recorded
+ * there, and left for the drain task to deliver.</p>
+ *
+ * <p>Stocks are delivered in order of their numbers, starting each drain 
+ * where the last one left off, so that all stocks get their turn when the
+ * subscriber asks for fewer quotes than have changed.</p>
+ *
+ * @author mq-soft-tech
+ *
+ */
+final class ConflatingSubscription implements Flow.Subscription, TickListener, Runnable {
+
+	// Static data members (constants)
+	
+	/**
+	 * Handle used to make atomic updates to the words of <code>mDirty</code>.
+	 */
+	private static final VarHandle DIRTY =
+			MethodHandles.arrayElementVarHandle(long[].class);
+	
+	// Data members (instance variables)
+
+	/**
+	 * The market feed this subscription reads quotes from.
+	 */
+	private final MarketFeed mFeed;
+
+	/**
+	 * The subscriber to deliver quotes to.
+	 */
+	private final Flow.Subscriber<? super Quote> mSubscriber;
+
+	/**
+	 * The executor which runs the drain task.
+	 */
+	private final Executor mExecutor;
+
+	/**
+	 * One bit for each stock, which is set if that stock has been updated
+	 * since it was last delivered.
+	 */
+	private final long[] mDirty;
+
+	/**
+	 * The number of quotes the subscriber has asked for but not yet been
+	 * sent, or {@link Long#MAX_VALUE} if it wants them all.
+	 */
+	private final AtomicLong mDemand = new AtomicLong();
+
+	/**
+	 * The number of times the drain task has been asked to run. It is only
+	 * handed to the executor when this goes up from zero.
+	 */
+	private final AtomicInteger mWorkInProgress = new AtomicInteger();
+
+	/**
+	 * Set once the subscription has been cancelled.
+	 */
+	private volatile boolean mCancelled;
+
+	/**
+	 * An error which the drain task should deliver to the subscriber, in
+	 * place of any more quotes.
+	 */
+	private volatile Throwable mError;
+
+	/**
+	 * Set once the subscriber has been sent an error, so that it never gets
+	 * another. Only ever used by the drain task.
+	 */
+	private boolean mErrorDelivered;
+
+	/**
+	 * The word of <code>mDirty</code> at which the next drain starts. Only 
+	 * ever used by the drain task.
+	 */
+	private int mCursor;
+
+	// Constructors
+
+	/**
+	 * Create a subscription in which every stock is marked as updated, so
+	 * that the subscriber starts by receiving a quote for each of them.
+	 *
+	 * @param pFeed the market feed to read quotes from.
+	 * @param pSubscriber the subscriber to deliver quotes to.
+	 * @param pExecutor the executor to deliver them on.
+	 */
+	ConflatingSubscription(MarketFeed pFeed, Flow.Subscriber<? super Quote> pSubscriber,
+			Executor pExecutor) {
+		mFeed = pFeed;
+		mSubscriber = pSubscriber;
+		mExecutor = pExecutor;
+		
+		int vNumStocks = pFeed.getNumStocks();
+		mDirty = new long[(vNumStocks + 63) >>> 6];
+		for (int i = 0; i < vNumStocks; i += 64)
+			mDirty[i >>> 6] = (vNumStocks - i >= 64) ? -1L : (1L << (vNumStocks - i)) - 1;
+	}
+
+	// Methods
+
+	@Override
+	public void request(long pCount) {
+		if (mCancelled)
+			return;
+		if (pCount <= 0) {
+			// We mustn't call the subscriber from here, since the drain task
+			// might be calling it at the same moment, so leave the error for
+			// the drain task to deliver.
+			mError = new IllegalArgumentException(
+					"Number of quotes requested must be positive: " + pCount);
+			cancel();
+			schedule();
+			return;
+		}
+		mDemand.getAndAccumulate(pCount, (vOld, vMore) -> {
+			long vNew = vOld + vMore;
+			return (vNew < 0) ? Long.MAX_VALUE : vNew;
+		});
+		schedule();
+	}
+
+	@Override
+	public void cancel() {
+		mCancelled = true;
+		mFeed.removeTickListener(this);
+	}
+
+	/**
+	 * Mark a stock as updated, and make sure the drain task will deliver it.
+	 * Called from the shard thread which made the update.
+	 */
+	@Override
+	public void onTick(int pStockNo, long pTime, long pPrice, long pBid, long pAsk, long pVolume) {
+		long vBit = 1L << pStockNo;
+		if (((long) DIRTY.getAndBitwiseOr(mDirty, pStockNo >>> 6, vBit) & vBit) == 0)
+			schedule();
+	}
+
+	/**
+	 * The drain task, which delivers as many of the updated stocks as the
+	 * subscriber has asked for. If it was asked to run again while it was
+	 * running, it goes round again rather than being resubmitted.
+	 */
+	@Override
+	public void run() {
+		int vMissed = 1;
+		do {
+			drain();
+			vMissed = mWorkInProgress.addAndGet(-vMissed);
+		} while (vMissed != 0);
+	}
+
+	/**
+	 * Ask for the drain task to be run.
+	 */
+	private void schedule() {
+		if (mWorkInProgress.getAndIncrement() == 0)
+			mExecutor.execute(this);
+	}
+
+	/**
+	 * Deliver as many of the updated stocks as the subscriber has asked for.
+	 */
+	private void drain() {
+		Throwable vError = mError;
+		if (vError != null) {
+			if (!mErrorDelivered) {
+				mErrorDelivered = true;
+				mSubscriber.onError(vError);
+			}
+			return;
+		}
+		
+		int vWords = mDirty.length;
+		for (int vScanned = 0; vScanned < vWords && !mCancelled; vScanned++) {
+			long vDemand = mDemand.get();
+			if (vDemand == 0)
+				return;
+			
+			int vWord = mCursor;
+			long vBits = (long) DIRTY.getAndSet(mDirty, vWord, 0L);
+			while (vBits != 0) {
+				if (vDemand == 0 || mCancelled) {
+					// Put back the stocks we haven't delivered, and start
+					// with them next time.
+					DIRTY.getAndBitwiseOr(mDirty, vWord, vBits);
+					return;
+				}
+				int vStockNo = (vWord << 6) + Long.numberOfTrailingZeros(vBits);
+				vBits &= vBits - 1;
+				
+				Quote vQuote = new Quote();
+				mFeed.getQuote(vStockNo, vQuote);
+				try {
+					mSubscriber.onNext(vQuote);
+				} catch (Throwable pExn) {
+					cancel();
+					mErrorDelivered = true;
+					mSubscriber.onError(pExn);
+					return;
+				}
+				if (vDemand != Long.MAX_VALUE)
+					vDemand = mDemand.decrementAndGet();
+			}
+			mCursor = (vWord + 1 == vWords) ? 0 : vWord + 1;
+		}
+	}
+}
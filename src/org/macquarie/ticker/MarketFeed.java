@@ -23,16 +23,40 @@
 
 package org.macquarie.ticker;
 
-import java.util.Random;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * <p>This class simulates the "market feed" which accepts a
  * stream of price updates and stores the most recent price
  * for each stock in the market.</p>
  * 
- * <p>It is implemented as a class that extends the {@link java.lang.Thread}
- * class so that we can run the market feed independently 
- * in a thread of its own.</p>
+ * <p>A real market may trade many thousands of stocks, far more price 
+ * updates than one thread could keep up with. So the stocks are divided
+ * up into {@link QuoteShard}s, each of which holds the quotes for a 
+ * contiguous block of stocks. Each shard is a thread of its own, and it
+ * is the only thread which ever updates the quotes in that shard. Calling
+ * {@link #start()} sets all of the shards going.</p>
+ * 
+ * <p>Reading a quote never takes a lock or waits for a writer, so any
+ * number of threads may call {@link #getQuote(int)} as often as they
+ * like without slowing down the feed. Each quote also carries a bid, an
+ * ask, a traded volume and the time of its last update, and 
+ * {@link #getQuote(int, Quote)} takes a consistent snapshot of all of them
+ * (see {@link QuoteShard} for how).</p>
+ * 
+ * <p>Rather than polling for quotes, an object may ask to be told about
+ * updates as they happen. A {@link TickListener} is called from the shard
+ * thread for every single update. A {@link Flow.Subscriber} is sent quotes
+ * on another thread, only as fast as it asks for them, and only the latest
+ * quote for each stock which has changed (see {@link ConflatingSubscription}).</p>
  * 
  * <p>In practice this would read information from an incoming 
  * data stream provided by an exchange, but in this case we
@@ -41,100 +65,380 @@ import java.util.Random;
  * @author Dominic Verity
  *
  */
-public class MarketFeed extends Thread {
+public class MarketFeed implements Flow.Publisher<Quote> {
 	
 	// Static data members (constants and class variable)
 
 	/**
-	 * Array of symbolic names of the stocks in this market
+	 * Array of symbolic names of the stocks in the default market
 	 */
 	private static final String[] STOCK_NAMES = {"ANZ","TLS", "NAB", "RIO", "GIO"};
 
+	// Data members (instance variables)
+	
 	/**
-	 * Number of stocks traded in this market
+	 * Array of symbolic names of the stocks in this market
 	 */
-	public static final int NUM_STOCKS = STOCK_NAMES.length;
+	private final String[] mSymbols;
 	
 	/**
-	 * Simulation parameter - maximum uptick / downtick per update
+	 * Table used to look up the number of a stock from its ticker name.
 	 */
-	private static final int MAX_TICK = 20;
+	private final SymbolTable mSymbolTable;
 	
 	/**
-	 * Simulation parameter - maximum wait between updates
+	 * The shards which hold the quotes for the stocks in this market.
 	 */
-	private static final long MAX_UPDATE_WAIT = 1000;
-
-	// Data members (instance variables)
+	private final QuoteShard[] mShards;
+	
+	/**
+	 * Number of stocks held in each shard, except possibly the last.
+	 */
+	private final int mShardSize;
+	
+	/**
+	 * The listeners to tell about each update. The array is never changed;
+	 * instead a new one is made each time a listener is added or removed.
+	 * So the shard threads can run through it without taking a lock, and
+	 * without being affected by listeners coming and going as they do.
+	 */
+	private volatile TickListener[] mListeners = new TickListener[0];
 	
 	/**
-	 * Array to hold the most recent traded price in each stock
+	 * Set once the shard threads have been started. Guarded by this object's
+	 * lock.
 	 */
-	private int[] mQuotes;
+	private boolean mStarted = false;
 	
 	/**
-	 * Variable to hold a random number generator
+	 * Set while a journal is being replayed into this feed. Guarded by this
+	 * object's lock.
 	 */
-	private Random mGenerator;
+	private boolean mReplaying = false;
 
 	// Constructors
 	
 	/**
-	 * Default constructor - create a quotes array and
-	 * populate it with randomly generated initial values.
+	 * Default constructor - create a market containing a small fixed
+	 * set of stocks, held in a single shard.
 	 */
 	MarketFeed () {
-		mQuotes = new int[NUM_STOCKS];
-		mGenerator = new Random();
-		for (int i = 0; i < NUM_STOCKS; i++)
-			mQuotes[i] = Math.abs(mGenerator.nextInt()) % 2000;
+		this(STOCK_NAMES, 1);
+	}
+	
+	/**
+	 * Create a market which trades a given set of stocks, divided up into
+	 * a given number of shards, and populate it with randomly generated 
+	 * initial prices. Its prices are updated at random intervals.
+	 * 
+	 * @param pSymbols the ticker names of the stocks in this market, which
+	 *        must all be different.
+	 * @param pShards the number of shards, and so the number of threads,
+	 *        to divide the stocks between.
+	 */
+	MarketFeed (String[] pSymbols, int pShards) {
+		this(pSymbols, pShards, null);
+	}
+	
+	/**
+	 * Create a market which trades a given set of stocks, divided up into
+	 * a given number of shards, and populate it with randomly generated 
+	 * initial prices.
+	 * 
+	 * @param pSymbols the ticker names of the stocks in this market, which
+	 *        must all be different.
+	 * @param pShards the number of shards, and so the number of threads,
+	 *        to divide the stocks between.
+	 * @param pTickGenerator the settings for a reproducible stream of 
+	 *        updates, or null to make updates at random intervals.
+	 */
+	MarketFeed (String[] pSymbols, int pShards, TickGenerator pTickGenerator) {
+		if (pSymbols.length == 0)
+			throw new IllegalArgumentException("A market must have at least one stock");
+		if (pShards < 1)
+			throw new IllegalArgumentException("Number of shards must be positive: " + pShards);
+		
+		mSymbols = pSymbols.clone();
+		mSymbolTable = new SymbolTable(mSymbols);
+		int vShards = Math.min(pShards, mSymbols.length);
+		mShardSize = (mSymbols.length + vShards - 1) / vShards;
+		vShards = (mSymbols.length + mShardSize - 1) / mShardSize;
+		
+		mShards = new QuoteShard[vShards];
+		for (int i = 0; i < vShards; i++) {
+			int vFirst = i * mShardSize;
+			mShards[i] = new QuoteShard(this, i, vFirst, 
+					Math.min(mShardSize, mSymbols.length - vFirst), pTickGenerator);
+		}
 	}
 
 	// Public methods
 	
 	/**
-	 * The run() method for this thread, simply generates
-	 * price updates at randomly chosen update intervals.
+	 * Read the ticker names of a market's stocks from a text file, which
+	 * should contain one name per line. Blank lines, and lines starting 
+	 * with a <code>#</code>, are ignored.
 	 * 
-	 * @see java.lang.Thread#run()
+	 * @param pFile the file to read.
+	 * @return the ticker names in that file, in order.
+	 * @throws IOException if the file can't be read.
 	 */
-	@Override
-	public void run() {
-		try {
-			while (!interrupted()) {
-				int vStockNum = (int)(Math.abs (mGenerator.nextLong()) % NUM_STOCKS);
-				long vPriceUpdate = (int)(mGenerator.nextLong() % MAX_TICK);
-				mQuotes[vStockNum] += vPriceUpdate;
-				Thread.sleep(Math.abs(mGenerator.nextLong()) % MAX_UPDATE_WAIT);
+	public static String[] loadSymbols(Path pFile) throws IOException {
+		List<String> vSymbols = new ArrayList<String>();
+		for (String vLine : Files.readAllLines(pFile)) {
+			vLine = vLine.trim();
+			if (!vLine.isEmpty() && !vLine.startsWith("#"))
+				vSymbols.add(vLine);
+		}
+		return vSymbols.toArray(new String[vSymbols.size()]);
+	}
+	
+	/**
+	 * Make up ticker names for a market of a given size, for use
+	 * when we don't have a real list to hand. The names run
+	 * "AAA", "AAB", ... and grow longer as needed.
+	 * 
+	 * @param pCount the number of names required.
+	 * @return an array of <code>pCount</code> distinct ticker names.
+	 */
+	public static String[] syntheticSymbols(int pCount) {
+		String[] vSymbols = new String[pCount];
+		char[] vName = new char[8];
+		for (int i = 0; i < pCount; i++) {
+			int vPos = vName.length;
+			int vRest = i;
+			do {
+				vName[--vPos] = (char)('A' + vRest % 26);
+				vRest /= 26;
+			} while (vRest > 0 || vName.length - vPos < 3);
+			vSymbols[i] = new String(vName, vPos, vName.length - vPos);
+		}
+		return vSymbols;
+	}
+	
+	/**
+	 * Set each of the shards of this market running, in threads
+	 * of their own.
+	 * 
+	 * @throws IllegalStateException if a journal is being replayed into this
+	 *         feed, since then the shards would not be the only threads 
+	 *         updating their quotes.
+	 */
+	public synchronized void start() {
+		if (mReplaying)
+			throw new IllegalStateException("A journal is being replayed into this feed");
+		mStarted = true;
+		for (QuoteShard vShard : mShards)
+			vShard.start();
+	}
+	
+	/**
+	 * Stop updating prices, by interrupting each of the shard threads.
+	 */
+	public void stop() {
+		for (QuoteShard vShard : mShards)
+			vShard.interrupt();
+	}
+	
+	/**
+	 * Ask for a listener to be told about every update made from now on.
+	 * 
+	 * @param pListener the listener to add.
+	 */
+	public synchronized void addTickListener(TickListener pListener) {
+		if (pListener == null)
+			throw new NullPointerException("Listener must not be null");
+		TickListener[] vListeners = Arrays.copyOf(mListeners, mListeners.length + 1);
+		vListeners[mListeners.length] = pListener;
+		mListeners = vListeners;
+	}
+	
+	/**
+	 * Stop telling a listener about updates. It may still be told about
+	 * updates which are already in progress.
+	 * 
+	 * @param pListener the listener to remove.
+	 */
+	public synchronized void removeTickListener(TickListener pListener) {
+		for (int i = 0; i < mListeners.length; i++) {
+			if (mListeners[i] == pListener) {
+				TickListener[] vListeners = new TickListener[mListeners.length - 1];
+				System.arraycopy(mListeners, 0, vListeners, 0, i);
+				System.arraycopy(mListeners, i + 1, vListeners, i, vListeners.length - i);
+				mListeners = vListeners;
+				return;
 			}
-		} catch (InterruptedException e) { 
-			// Nothing to do here, just drop through and exit.
 		}
 	}
 	
+	/**
+	 * Subscribe to conflated quotes, which are delivered on the common
+	 * {@link ForkJoinPool}. 
+	 * 
+	 * @param pSubscriber the subscriber to send quotes to.
+	 * @see #subscribe(Flow.Subscriber, Executor)
+	 */
+	@Override
+	public void subscribe(Flow.Subscriber<? super Quote> pSubscriber) {
+		subscribe(pSubscriber, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Subscribe to conflated quotes. The subscriber is first sent the 
+	 * current quote for every stock, and after that the latest quote for
+	 * each stock which has changed since it was last sent, as fast as the
+	 * subscriber asks for them. Each quote is a new {@link Quote} object,
+	 * which the subscriber may keep.
+	 * 
+	 * @param pSubscriber the subscriber to send quotes to.
+	 * @param pExecutor the executor to deliver quotes on.
+	 */
+	public void subscribe(Flow.Subscriber<? super Quote> pSubscriber, Executor pExecutor) {
+		if (pSubscriber == null || pExecutor == null)
+			throw new NullPointerException("Subscriber and executor must not be null");
+		ConflatingSubscription vSubscription = 
+				new ConflatingSubscription(this, pSubscriber, pExecutor);
+		// Start listening before handing over the subscription, since the 
+		// subscriber may cancel it straight away. Ticks arriving before then
+		// only mark stocks as changed, since nothing has been requested yet.
+		addTickListener(vSubscription);
+		pSubscriber.onSubscribe(vSubscription);
+	}
+	
+	/**
+	 * @return the number of stocks traded in this market.
+	 */
+	public int getNumStocks() {
+		return mSymbols.length;
+	}
+	
+	/**
+	 * @return the number of shards the stocks in this market are divided between.
+	 */
+	public int getNumShards() {
+		return mShards.length;
+	}
+	
 	/**
 	 * Get a stock quote for a specific numbered stock.
 	 * 
 	 * @param pStockNo the number of the stock to return a quote for.
-	 * @return the quote if 0 <= pStockNo < NUM_STOCKS and -1 otherwise. 
+	 * @return the quote if 0 <= pStockNo < getNumStocks() and -1 otherwise. 
 	 */
-	public int getQuote(int pStockNo) {
-		if (0 <= pStockNo && pStockNo < NUM_STOCKS) 
-			return mQuotes[pStockNo];
+	public long getQuote(int pStockNo) {
+		if (0 <= pStockNo && pStockNo < mSymbols.length) 
+			return mShards[pStockNo / mShardSize].getPrice(pStockNo % mShardSize);
 		else
 			return -1;
 	}
 	
+	/**
+	 * Take a consistent snapshot of the full quote for a specific numbered 
+	 * stock. The price, bid, ask, volume and time in the snapshot are all
+	 * guaranteed to come from the same update.
+	 * 
+	 * @param pStockNo the number of the stock to return a quote for.
+	 * @param pQuote the snapshot to fill in.
+	 * @return true if 0 <= pStockNo < getNumStocks(), in which case the 
+	 *         snapshot was filled in, and false otherwise.
+	 */
+	public boolean getQuote(int pStockNo, Quote pQuote) {
+		if (0 <= pStockNo && pStockNo < mSymbols.length) {
+			mShards[pStockNo / mShardSize].readQuote(pStockNo % mShardSize, pQuote);
+			return true;
+		} else
+			return false;
+	}
+	
+	/**
+	 * Get a stock quote for the stock with a given ticker name. The name
+	 * may be held in any kind of {@link CharSequence}, and it is looked up
+	 * without making a new {@link String}, so a feed handler can pass in
+	 * part of a message buffer directly.
+	 * 
+	 * @param pSymbol the ticker name of the stock to return a quote for.
+	 * @return the quote if this market trades that stock and -1 otherwise.
+	 */
+	public long getQuote(CharSequence pSymbol) {
+		return getQuote(mSymbolTable.indexOf(pSymbol));
+	}
+	
+	/**
+	 * Find the number of the stock with a given ticker name.
+	 * 
+	 * @param pSymbol the ticker name to look for.
+	 * @return the number of that stock, or -1 if this market doesn't trade it.
+	 */
+	public int getStockNo(CharSequence pSymbol) {
+		return mSymbolTable.indexOf(pSymbol);
+	}
+	
 	/**
 	 * Get the ticker name for a specific numbered stock
 	 * 
 	 * @param pStockNo the number of the stock whose ticker name is required.
-	 * @return the ticker name if 0 <= pStockNo < NUM_STOCKS and empty otherwise.
+	 * @return the ticker name if 0 <= pStockNo < getNumStocks() and empty otherwise.
 	 */
 	public String getTickerName(int pStockNo) {
-		if (0 <= pStockNo && pStockNo < NUM_STOCKS) 
-			return STOCK_NAMES[pStockNo];
+		if (0 <= pStockNo && pStockNo < mSymbols.length) 
+			return mSymbols[pStockNo];
 		else
 			return "";
 	}
+	
+	/**
+	 * Overwrite the quote for a stock with one read back from a 
+	 * {@link TickJournal}. This has the signature of 
+	 * {@link TickListener#onTick}, so that <code>pFeed::replayTick</code> may
+	 * be passed to {@link TickJournalReader#replay(TickListener, boolean)}. 
+	 * The feed must not have been started, since the replaying thread takes
+	 * the place of the shard threads as the only writer of its quotes.
+	 * 
+	 * @param pStockNo the number of the stock to update.
+	 * @param pTime the time recorded in the journal, which is ignored since
+	 *        the update is stamped with the time it is replayed.
+	 * @param pPrice the price traded at.
+	 * @param pBid the new bid price.
+	 * @param pAsk the new ask price.
+	 * @param pVolume the total number of shares traded so far.
+	 */
+	void replayTick(int pStockNo, long pTime, long pPrice, long pBid, long pAsk, long pVolume) {
+		if (0 <= pStockNo && pStockNo < mSymbols.length)
+			mShards[pStockNo / mShardSize].publish(pStockNo % mShardSize, 
+					pPrice, pBid, pAsk, pVolume);
+	}
+	
+	/**
+	 * Claim this feed for a thread which is about to replay a journal into it
+	 * with {@link #replayTick}. Only one thread may update a stock's quote, 
+	 * and tell the listeners about it, at any one time. So a journal may not be
+	 * replayed once the shard threads have been started, nor by two threads
+	 * at once.
+	 * 
+	 * @throws IllegalStateException if the feed has been started or is
+	 *         already being replayed into.
+	 */
+	synchronized void beginReplay() {
+		if (mStarted)
+			throw new IllegalStateException("Cannot replay a journal into a feed which has been started");
+		if (mReplaying)
+			throw new IllegalStateException("A journal is already being replayed into this feed");
+		mReplaying = true;
+	}
+	
+	/**
+	 * Release the claim made by {@link #beginReplay()}.
+	 */
+	synchronized void endReplay() {
+		mReplaying = false;
+	}
+	
+	/**
+	 * Tell each of the listeners about an update. Called from the shard
+	 * thread which made it.
+	 */
+	void fireTick(int pStockNo, long pTime, long pPrice, long pBid, long pAsk, long pVolume) {
+		for (TickListener vListener : mListeners)
+			vListener.onTick(pStockNo, pTime, pPrice, pBid, pAsk, pVolume);
+	}
 }
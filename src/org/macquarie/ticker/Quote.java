@@ -0,0 +1,135 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.ticker;
+
+/**
+ * <p>A consistent snapshot of the quote for a single stock, as filled in
+ * by {@link MarketFeed#getQuote(int, Quote)}. All of the values in a
+ * snapshot were written by the same update, so for example the bid will
+ * never be from one update and the ask from the next.</p>
+ *
+ * <p>Snapshots are meant to be reused. A thread which reads a lot of quotes
+ * should make one <code>Quote</code> object and pass it in each time, rather
+ * than making a new one for every read. They are not thread safe, so each
+ * thread should have its own.</p>
+ *
+ * @author mq-soft-tech
+ *
+ */
+public final class Quote {
+
+	// Data members (instance variables)
+
+	/**
+	 * The number of the stock this is a quote for.
+	 */
+	private int mStockNo = -1;
+
+	/**
+	 * The most recent traded price.
+	 */
+	private long mPrice;
+
+	/**
+	 * The highest price a buyer is currently offering.
+	 */
+	private long mBid;
+
+	/**
+	 * The lowest price a seller is currently asking.
+	 */
+	private long mAsk;
+
+	/**
+	 * The total number of shares traded so far.
+	 */
+	private long mVolume;
+
+	/**
+	 * The value of {@link System#nanoTime()} when the quote was last updated.
+	 */
+	private long mTime;
+
+	// Methods
+
+	/**
+	 * Fill in this snapshot.
+	 */
+	void set(int pStockNo, long pPrice, long pBid, long pAsk, long pVolume, long pTime) {
+		mStockNo = pStockNo;
+		mPrice = pPrice;
+		mBid = pBid;
+		mAsk = pAsk;
+		mVolume = pVolume;
+		mTime = pTime;
+	}
+
+	/**
+	 * @return the number of the stock this is a quote for, or -1 if this
+	 *         snapshot hasn't been filled in.
+	 */
+	public int getStockNo() {
+		return mStockNo;
+	}
+
+	/**
+	 * @return the most recent traded price.
+	 */
+	public long getPrice() {
+		return mPrice;
+	}
+
+	/**
+	 * @return the highest price a buyer is currently offering.
+	 */
+	public long getBid() {
+		return mBid;
+	}
+
+	/**
+	 * @return the lowest price a seller is currently asking.
+	 */
+	public long getAsk() {
+		return mAsk;
+	}
+
+	/**
+	 * @return the total number of shares traded so far.
+	 */
+	public long getVolume() {
+		return mVolume;
+	}
+
+	/**
+	 * @return the value of {@link System#nanoTime()} when the quote was last updated.
+	 */
+	public long getTime() {
+		return mTime;
+	}
+
+	@Override
+	public String toString() {
+		return "#" + mStockNo + " " + mPrice + " (" + mBid + "/" + mAsk + ") vol " + mVolume;
+	}
+}
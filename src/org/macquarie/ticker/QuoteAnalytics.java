@@ -0,0 +1,322 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.ticker;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * <p>Rolling statistics for every stock in a {@link MarketFeed}, kept up
+ * to date as each tick arrives. Register an instance with 
+ * {@link MarketFeed#addTickListener(TickListener)}, and any thread may then 
+ * read the statistics for any stock at any time. For each stock we keep:</p>
+ *
+ * <ul>
+ * <li>the number of ticks seen;</li>
+ * <li>an exponential moving average (EMA) of its price, which moves a fixed
+ * fraction of the way towards each new price;</li>
+ * <li>its volume weighted average price (VWAP), the average price paid per
+ * share traded since we started watching; and</li>
+ * <li>its lowest and highest prices over a sliding window of time, ending
+ * at its most recent tick.</li>
+ * </ul>
+ *
+ * <p>Each statistic is updated in a constant amount of time per tick. The
+ * only tricky one is the sliding window. The obvious approach of keeping all
+ * of the prices in the window and searching them for the highest would take
+ * time proportional to the number of ticks in the window. Instead we keep a
+ * <em>monotonic deque</em> for each stock: a queue of (time, price) pairs 
+ * whose prices are decreasing from front to back. When a new price arrives,
+ * any prices at the back which it is at least as high as can never be the 
+ * maximum again, so we throw them away before adding it. Prices at the front
+ * are thrown away once they drop out of the window. The front of the deque 
+ * is then the highest price in the window. Each price is added once and 
+ * removed at most once, so this takes constant time per tick on average. A
+ * second deque, with increasing prices, gives the lowest price.</p>
+ *
+ * <p>All of the state is held in arrays of primitive values, indexed by
+ * stock number, so a tick never creates any objects (except on the rare 
+ * occasions that a deque has to grow). As {@link TickListener} promises,
+ * each stock only ever receives ticks from one thread at a time: the shard
+ * thread which owns it, or a thread replaying a journal into a feed which
+ * hasn't been started. So its state has a single writer and needs no locks.
+ * This means an instance must not be registered with a running feed and 
+ * also be given ticks directly, for example by 
+ * {@link TickJournalReader#replay(TickListener, boolean)}. The published statistics are written with release
+ * semantics and read with acquire semantics, so that a reader always sees
+ * an up to date value. (A reader which reads several statistics of the same
+ * stock may see them from neighbouring ticks, though. Use 
+ * {@link MarketFeed#getQuote(int, Quote)} where that matters.)</p>
+ *
+ * @author mq-soft-tech
+ *
+ */
+public class QuoteAnalytics implements TickListener {
+
+	// Static data members (constants)
+
+	/**
+	 * The number of entries each deque starts out with room for.
+	 */
+	private static final int INITIAL_DEQUE_CAPACITY = 16;
+
+	/**
+	 * Handles used to publish and read the statistics.
+	 */
+	private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+	private static final VarHandle DOUBLES = MethodHandles.arrayElementVarHandle(double[].class);
+
+	// Data members (instance variables)
+
+	/**
+	 * The fraction of the way the EMA moves towards each new price.
+	 */
+	private final double mAlpha;
+
+	/**
+	 * The length of the sliding window, in nanoseconds.
+	 */
+	private final long mWindow;
+
+	/**
+	 * The published statistics, indexed by stock number.
+	 */
+	private final long[] mCounts, mLows, mHighs;
+	private final double[] mEmas, mVwaps;
+
+	/**
+	 * The running totals used to compute each stock's VWAP, and the volume
+	 * at its last tick. Only used by the writing thread.
+	 */
+	private final double[] mTurnovers;
+	private final long[] mVolumes, mFirstVolumes;
+
+	/**
+	 * The deques of the highest and lowest prices in each stock's window, 
+	 * which are circular arrays of times and prices with their own 
+	 * head and tail counters. Only used by the writing thread.
+	 */
+	private final Deques mHighDeques, mLowDeques;
+
+	// Constructors
+
+	/**
+	 * Make a set of empty statistics for the stocks of a market.
+	 *
+	 * @param pNumStocks the number of stocks in the market.
+	 * @param pAlpha the fraction of the way the EMA moves towards each new
+	 *        price, between 0 (exclusive) and 1 (inclusive).
+	 * @param pWindow the length of the sliding window, in nanoseconds.
+	 */
+	public QuoteAnalytics(int pNumStocks, double pAlpha, long pWindow) {
+		if (!(pAlpha > 0 && pAlpha <= 1))
+			throw new IllegalArgumentException("EMA factor out of range: " + pAlpha);
+		if (pWindow <= 0)
+			throw new IllegalArgumentException("Window must be positive: " + pWindow);
+		mAlpha = pAlpha;
+		mWindow = pWindow;
+		mCounts = new long[pNumStocks];
+		mLows = new long[pNumStocks];
+		mHighs = new long[pNumStocks];
+		mEmas = new double[pNumStocks];
+		mVwaps = new double[pNumStocks];
+		mTurnovers = new double[pNumStocks];
+		mVolumes = new long[pNumStocks];
+		mFirstVolumes = new long[pNumStocks];
+		mHighDeques = new Deques(pNumStocks);
+		mLowDeques = new Deques(pNumStocks);
+	}
+
+	// Methods
+
+	/**
+	 * Update the statistics for a stock. Called from the shard thread which 
+	 * made the tick, or the thread replaying it from a journal.
+	 */
+	@Override
+	public void onTick(int pStockNo, long pTime, long pPrice, long pBid, long pAsk, long pVolume) {
+		if (pStockNo < 0 || pStockNo >= mCounts.length)
+			return;
+		long vCount = mCounts[pStockNo];
+		
+		// Exponential moving average, starting from the first price.
+		double vEma = (vCount == 0) ? pPrice : mEmas[pStockNo] + mAlpha * (pPrice - mEmas[pStockNo]);
+		
+		// Volume weighted average price. The feed gives us the total volume,
+		// so the number of shares in this trade is the change in the total.
+		if (vCount == 0)
+			mFirstVolumes[pStockNo] = pVolume;
+		long vLot = (vCount == 0) ? 0 : pVolume - mVolumes[pStockNo];
+		mVolumes[pStockNo] = pVolume;
+		mTurnovers[pStockNo] += (double) vLot * pPrice;
+		long vTraded = pVolume - mFirstVolumes[pStockNo];
+		double vVwap = (vTraded == 0) ? pPrice : mTurnovers[pStockNo] / vTraded;
+		
+		// Sliding window high and low.
+		long vHigh = mHighDeques.add(pStockNo, pTime, pPrice, pTime - mWindow, true);
+		long vLow = mLowDeques.add(pStockNo, pTime, pPrice, pTime - mWindow, false);
+		
+		DOUBLES.setRelease(mEmas, pStockNo, vEma);
+		DOUBLES.setRelease(mVwaps, pStockNo, vVwap);
+		LONGS.setRelease(mHighs, pStockNo, vHigh);
+		LONGS.setRelease(mLows, pStockNo, vLow);
+		LONGS.setRelease(mCounts, pStockNo, vCount + 1);
+	}
+
+	/**
+	 * @param pStockNo the number of a stock.
+	 * @return the number of ticks seen for that stock.
+	 */
+	public long getTickCount(int pStockNo) {
+		return (long) LONGS.getAcquire(mCounts, pStockNo);
+	}
+
+	/**
+	 * @param pStockNo the number of a stock.
+	 * @return the exponential moving average of that stock's price, or 0 if
+	 *         it hasn't had a tick yet.
+	 */
+	public double getEma(int pStockNo) {
+		return (double) DOUBLES.getAcquire(mEmas, pStockNo);
+	}
+
+	/**
+	 * @param pStockNo the number of a stock.
+	 * @return the volume weighted average price of that stock, or 0 if it 
+	 *         hasn't had a tick yet.
+	 */
+	public double getVwap(int pStockNo) {
+		return (double) DOUBLES.getAcquire(mVwaps, pStockNo);
+	}
+
+	/**
+	 * @param pStockNo the number of a stock.
+	 * @return the highest price of that stock in the window ending at its
+	 *         most recent tick, or 0 if it hasn't had a tick yet.
+	 */
+	public long getWindowHigh(int pStockNo) {
+		return (long) LONGS.getAcquire(mHighs, pStockNo);
+	}
+
+	/**
+	 * @param pStockNo the number of a stock.
+	 * @return the lowest price of that stock in the window ending at its
+	 *         most recent tick, or 0 if it hasn't had a tick yet.
+	 */
+	public long getWindowLow(int pStockNo) {
+		return (long) LONGS.getAcquire(mLows, pStockNo);
+	}
+
+	/**
+	 * One monotonic deque of (time, price) pairs for each stock.
+	 */
+	private static final class Deques {
+
+		/**
+		 * The times and prices in each stock's deque, as circular arrays
+		 * whose lengths are powers of two.
+		 */
+		private final long[][] mTimes, mPrices;
+
+		/**
+		 * The number of entries ever removed from the front of, and added to 
+		 * the back of, each stock's deque.
+		 */
+		private final int[] mHeads, mTails;
+
+		Deques(int pNumStocks) {
+			mTimes = new long[pNumStocks][INITIAL_DEQUE_CAPACITY];
+			mPrices = new long[pNumStocks][INITIAL_DEQUE_CAPACITY];
+			mHeads = new int[pNumStocks];
+			mTails = new int[pNumStocks];
+		}
+
+		/**
+		 * Add a price to a stock's deque, and find the highest (or lowest)
+		 * price in its window.
+		 *
+		 * @param pStockNo the number of the stock.
+		 * @param pTime the time of the new price.
+		 * @param pPrice the new price.
+		 * @param pExpired times at or before this have dropped out of the window.
+		 * @param pHighest true to keep the highest price, false for the lowest.
+		 * @return the highest (or lowest) price in the window.
+		 */
+		long add(int pStockNo, long pTime, long pPrice, long pExpired, boolean pHighest) {
+			long[] vTimes = mTimes[pStockNo];
+			long[] vPrices = mPrices[pStockNo];
+			int vMask = vTimes.length - 1;
+			int vHead = mHeads[pStockNo];
+			int vTail = mTails[pStockNo];
+			
+			// Throw away prices at the back which the new one beats.
+			while (vTail != vHead) {
+				long vLast = vPrices[(vTail - 1) & vMask];
+				if (pHighest ? vLast > pPrice : vLast < pPrice)
+					break;
+				vTail--;
+			}
+			
+			// Make room if the deque is full.
+			if (vTail - vHead == vTimes.length) {
+				grow(pStockNo, vHead, vTail);
+				vTimes = mTimes[pStockNo];
+				vPrices = mPrices[pStockNo];
+				vMask = vTimes.length - 1;
+				vTail -= vHead;
+				vHead = 0;
+			}
+			vTimes[vTail & vMask] = pTime;
+			vPrices[vTail & vMask] = pPrice;
+			vTail++;
+			
+			// Throw away prices at the front which have left the window. The
+			// new price is never thrown away, so the deque is never empty.
+			while (vTimes[vHead & vMask] - pExpired <= 0 && vTail - vHead > 1)
+				vHead++;
+			
+			mHeads[pStockNo] = vHead;
+			mTails[pStockNo] = vTail;
+			return vPrices[vHead & vMask];
+		}
+
+		/**
+		 * Double the capacity of a stock's deque, moving its entries to 
+		 * the start of the new arrays.
+		 */
+		private void grow(int pStockNo, int pHead, int pTail) {
+			long[] vOldTimes = mTimes[pStockNo];
+			long[] vOldPrices = mPrices[pStockNo];
+			int vOldMask = vOldTimes.length - 1;
+			long[] vTimes = new long[2 * vOldTimes.length];
+			long[] vPrices = new long[2 * vOldPrices.length];
+			for (int i = 0; i < pTail - pHead; i++) {
+				vTimes[i] = vOldTimes[(pHead + i) & vOldMask];
+				vPrices[i] = vOldPrices[(pHead + i) & vOldMask];
+			}
+			mTimes[pStockNo] = vTimes;
+			mPrices[pStockNo] = vPrices;
+		}
+	}
+}
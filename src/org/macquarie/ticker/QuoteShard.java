@@ -0,0 +1,372 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.ticker;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>A shard of a {@link MarketFeed}, holding the quotes for a contiguous
+ * block of its stocks. Each shard is a thread of its own, which plays the
+ * role of a feed handler receiving the price updates for its stocks. That
+ * thread is the only one which ever writes to the shard's quotes, so writers
+ * never have to coordinate with each other.</p>
+ *
+ * <p>Each quote is stored in a cache line of its own, by spacing the quotes
+ * {@link #STRIDE} entries apart in the shard's array and leaving a whole
+ * quote's worth of padding at either end. Otherwise a reader which polls one stock
+ * would keep losing its cache line whenever the stock next to it was
+ * updated (so-called <em>false sharing</em>), and so would the writers of
+ * two neighbouring shards.</p>
+ *
+ * <p>A quote is made up of several values - price, bid, ask, volume and time
+ * of update - which must be read together. If a reader simply read them one 
+ * after another it could see some values from one update and some from the
+ * next, just as the validating thread does in 
+ * {@link org.macquarie.inconsistent.InconsistentState}. We could prevent that
+ * with a lock, but then a busy reader could hold up the writer. Instead each
+ * quote is guarded by a <em>sequence lock</em>:</p>
+ *
+ * <ul>
+ * <li>The first entry of each quote is a sequence number, which is even while
+ * the quote is stable. The writer makes it odd before it changes the quote,
+ * and makes it even again (with a release write) when it has finished.</li>
+ * <li>A reader reads the sequence number, then the values, then the sequence
+ * number again. If the two sequence numbers are equal and even then no update
+ * overlapped the read, and the values are consistent. Otherwise the reader 
+ * simply tries again.</li>
+ * </ul>
+ *
+ * <p>So the writer never waits for anyone, and a reader only ever has to 
+ * retry when it actually collides with an update to the same stock.</p>
+ *
+ * <p>By default a shard makes an update at random intervals of up to a 
+ * second. If it is given a {@link TickGenerator} it makes a reproducible
+ * stream of updates at a steady rate instead.</p>
+ *
+ * @author mq-soft-tech
+ *
+ */
+class QuoteShard extends Thread {
+
+	// Static data members (constants)
+
+	/**
+	 * Number of <code>long</code> entries between consecutive quotes, making
+	 * a 128 byte slot for each. The JVM only promises to align a 
+	 * <code>long[]</code> to 8 bytes, so a 64 byte slot could straddle two 
+	 * cache lines and share each of them with a neighbour. With 128 byte slots
+	 * the six entries of one quote are always at least 80 bytes away from those
+	 * of the next, wherever the array starts, so they can never share a 64 byte
+	 * line. (This also keeps apart the pairs of lines which some processors 
+	 * prefetch together.)
+	 */
+	static final int STRIDE = 16;
+
+	/**
+	 * Offsets of the parts of a quote from the start of its entries.
+	 */
+	private static final int SEQUENCE = 0, PRICE = 1, BID = 2, ASK = 3, VOLUME = 4, TIME = 5;
+
+	/**
+	 * Simulation parameter - maximum uptick / downtick per update
+	 */
+	private static final int MAX_TICK = 20;
+
+	/**
+	 * Simulation parameter - maximum gap between the price and the bid or ask
+	 */
+	private static final int MAX_SPREAD = 5;
+
+	/**
+	 * Simulation parameter - maximum number of shares traded per update
+	 */
+	private static final int MAX_LOT = 1000;
+
+	/**
+	 * Simulation parameter - maximum wait between updates
+	 */
+	private static final long MAX_UPDATE_WAIT = 1000;
+
+	/**
+	 * How far, in nanoseconds, a generating shard must get ahead of schedule
+	 * before it parks. Parking for any less than this is too inaccurate.
+	 */
+	private static final long MIN_PARK_NANOS = 50_000;
+
+	/**
+	 * Handle used to make ordered reads and writes to the quotes array.
+	 */
+	private static final VarHandle QUOTES =
+			MethodHandles.arrayElementVarHandle(long[].class);
+
+	// Data members (instance variables)
+
+	/**
+	 * The quote of each stock in this shard. The quote for stock <code>i</code> 
+	 * (counting from the start of the shard) starts at index 
+	 * <code>(i + 1) * STRIDE</code>.
+	 */
+	private final long[] mQuotes;
+
+	/**
+	 * The market feed this shard belongs to.
+	 */
+	private final MarketFeed mFeed;
+	
+	/**
+	 * The number of the first stock in this shard.
+	 */
+	private final int mFirstStock;
+
+	/**
+	 * Number of stocks held in this shard.
+	 */
+	private final int mNumStocks;
+
+	/**
+	 * Variable to hold a random number generator, if we aren't using a
+	 * {@link TickGenerator}.
+	 */
+	private final Random mGenerator;
+
+	/**
+	 * The settings for generating a steady stream of updates, or null.
+	 */
+	private final TickGenerator mTickGenerator;
+
+	/**
+	 * The random number generator used with <code>mTickGenerator</code>.
+	 */
+	private final SplittableRandom mRandom;
+
+	/**
+	 * This shard's share of the updates made by <code>mTickGenerator</code>.
+	 */
+	private final double mShare;
+
+	// Constructors
+
+	/**
+	 * Create a shard for a given number of stocks and populate it
+	 * with randomly generated initial prices.
+	 *
+	 * @param pFeed the market feed this shard belongs to.
+	 * @param pShard the number of this shard.
+	 * @param pFirstStock the number of the first stock in this shard.
+	 * @param pNumStocks the number of stocks in this shard.
+	 * @param pTickGenerator the settings for generating updates, or null
+	 *        to make them at random intervals.
+	 */
+	QuoteShard(MarketFeed pFeed, int pShard, int pFirstStock, int pNumStocks,
+			TickGenerator pTickGenerator) {
+		super("QuoteShard-" + pShard);
+		setDaemon(true);
+		mFeed = pFeed;
+		mFirstStock = pFirstStock;
+		mNumStocks = pNumStocks;
+		mQuotes = new long[(pNumStocks + 2) * STRIDE];
+		mTickGenerator = pTickGenerator;
+		if (pTickGenerator == null) {
+			mGenerator = new Random();
+			mRandom = null;
+			mShare = 0;
+		} else {
+			mGenerator = null;
+			mRandom = pTickGenerator.randomFor(pShard);
+			mShare = pTickGenerator.shareOf(pFirstStock, pNumStocks, pFeed.getNumStocks());
+		}
+		long vNow = System.nanoTime();
+		for (int i = 0; i < pNumStocks; i++) {
+			int vBase = (i + 1) * STRIDE;
+			long vPrice = (mRandom != null) ? 
+					1 + mRandom.nextInt(2000) : Math.abs(mGenerator.nextInt()) % 2000;
+			mQuotes[vBase + PRICE] = vPrice;
+			mQuotes[vBase + BID] = vPrice - 1;
+			mQuotes[vBase + ASK] = vPrice + 1;
+			mQuotes[vBase + TIME] = vNow;
+		}
+	}
+
+	// Methods
+
+	/**
+	 * The run() method for this thread, simply generates price updates
+	 * for the stocks in this shard at randomly chosen update intervals.
+	 *
+	 * @see java.lang.Thread#run()
+	 */
+	@Override
+	public void run() {
+		if (mNumStocks == 0)
+			return;
+		if (mTickGenerator != null) {
+			generate();
+			return;
+		}
+		try {
+			while (!interrupted()) {
+				int vStockNum = (int)(Math.abs(mGenerator.nextLong()) % mNumStocks);
+				int vPriceUpdate = (int)(mGenerator.nextLong() % MAX_TICK);
+				long vPrice = getPrice(vStockNum) + vPriceUpdate;
+				applyTick(vStockNum, vPrice, 
+						vPrice - 1 - mGenerator.nextInt(MAX_SPREAD),
+						vPrice + 1 + mGenerator.nextInt(MAX_SPREAD),
+						1 + mGenerator.nextInt(MAX_LOT));
+				Thread.sleep(Math.abs(mGenerator.nextLong()) % MAX_UPDATE_WAIT);
+			}
+		} catch (InterruptedException e) {
+			// Nothing to do here, just drop through and exit.
+		}
+	}
+
+	/**
+	 * Make a steady stream of updates, as set out by our {@link TickGenerator},
+	 * until this thread is interrupted. Each tick is due a fixed interval
+	 * after the last one was due (rather than after it was made), so that
+	 * any delays are caught up on and the long run rate is exact.
+	 */
+	private void generate() {
+		double[] vCdf = mTickGenerator.cumulativeWeights(mFirstStock, mNumStocks);
+		SplittableRandom vRandom = mRandom;
+		long vStart = System.nanoTime();
+		double vDue = 0;
+		
+		while (!interrupted()) {
+			int vStockNum = TickGenerator.pick(vCdf, vRandom.nextDouble());
+			long vPrice = getPrice(vStockNum) + vRandom.nextInt(1 - MAX_TICK, MAX_TICK);
+			if (vPrice < 1)
+				vPrice = 1;
+			applyTick(vStockNum, vPrice, 
+					vPrice - 1 - vRandom.nextInt(MAX_SPREAD),
+					vPrice + 1 + vRandom.nextInt(MAX_SPREAD),
+					1 + vRandom.nextInt(MAX_LOT));
+			
+			long vElapsed = System.nanoTime() - vStart;
+			vDue += mTickGenerator.intervalAt(mShare, vElapsed);
+			long vAhead = (long) vDue - vElapsed;
+			if (vAhead >= MIN_PARK_NANOS)
+				LockSupport.parkNanos(vAhead);
+		}
+	}
+
+	/**
+	 * @return the number of stocks held in this shard.
+	 */
+	int getNumStocks() {
+		return mNumStocks;
+	}
+
+	/**
+	 * Get the most recent traded price of a stock in this shard. This may
+	 * be called from any thread. A single value can't be torn, so this 
+	 * doesn't need to check the sequence number.
+	 *
+	 * @param pIndex the number of the stock, counting from the start of the shard.
+	 * @return the most recent price of that stock.
+	 */
+	long getPrice(int pIndex) {
+		return (long) QUOTES.getAcquire(mQuotes, (pIndex + 1) * STRIDE + PRICE);
+	}
+
+	/**
+	 * Take a consistent snapshot of the quote for a stock in this shard. This
+	 * may be called from any thread, and never blocks, but it will try again 
+	 * if the quote is updated while it is being read.
+	 *
+	 * @param pIndex the number of the stock, counting from the start of the shard.
+	 * @param pQuote the snapshot to fill in.
+	 */
+	void readQuote(int pIndex, Quote pQuote) {
+		int vBase = (pIndex + 1) * STRIDE;
+		long vSequence, vPrice, vBid, vAsk, vVolume, vTime;
+		do {
+			// Wait for any update in progress to finish.
+			while (((vSequence = (long) QUOTES.getAcquire(mQuotes, vBase + SEQUENCE)) & 1) != 0)
+				Thread.onSpinWait();
+			
+			vPrice = (long) QUOTES.getOpaque(mQuotes, vBase + PRICE);
+			vBid = (long) QUOTES.getOpaque(mQuotes, vBase + BID);
+			vAsk = (long) QUOTES.getOpaque(mQuotes, vBase + ASK);
+			vVolume = (long) QUOTES.getOpaque(mQuotes, vBase + VOLUME);
+			vTime = (long) QUOTES.getOpaque(mQuotes, vBase + TIME);
+			
+			// Make sure the values are read before we re-read the sequence number.
+			VarHandle.loadLoadFence();
+		} while ((long) QUOTES.getOpaque(mQuotes, vBase + SEQUENCE) != vSequence);
+		
+		pQuote.set(mFirstStock + pIndex, vPrice, vBid, vAsk, vVolume, vTime);
+	}
+
+	/**
+	 * Record a trade in a stock in this shard, and then tell the feed's
+	 * listeners about it. This must only be called from the shard's own thread.
+	 *
+	 * @param pIndex the number of the stock, counting from the start of the shard.
+	 * @param pPrice the price traded at.
+	 * @param pBid the new bid price.
+	 * @param pAsk the new ask price.
+	 * @param pLot the number of shares traded.
+	 */
+	void applyTick(int pIndex, long pPrice, long pBid, long pAsk, long pLot) {
+		publish(pIndex, pPrice, pBid, pAsk, mQuotes[(pIndex + 1) * STRIDE + VOLUME] + pLot);
+	}
+
+	/**
+	 * Overwrite the quote for a stock in this shard, and then tell the feed's
+	 * listeners about it. This must only be called from the one thread which
+	 * writes to this shard, normally the shard's own thread but possibly a
+	 * thread replaying a {@link TickJournal} instead.
+	 *
+	 * @param pIndex the number of the stock, counting from the start of the shard.
+	 * @param pPrice the price traded at.
+	 * @param pBid the new bid price.
+	 * @param pAsk the new ask price.
+	 * @param pVolume the total number of shares traded so far.
+	 */
+	void publish(int pIndex, long pPrice, long pBid, long pAsk, long pVolume) {
+		int vBase = (pIndex + 1) * STRIDE;
+		long vSequence = mQuotes[vBase + SEQUENCE];
+		
+		// Mark the quote as being updated, and make sure that readers can see
+		// that before they see any of the new values.
+		QUOTES.setOpaque(mQuotes, vBase + SEQUENCE, vSequence + 1);
+		VarHandle.storeStoreFence();
+		
+		QUOTES.setOpaque(mQuotes, vBase + PRICE, pPrice);
+		QUOTES.setOpaque(mQuotes, vBase + BID, pBid);
+		QUOTES.setOpaque(mQuotes, vBase + ASK, pAsk);
+		long vTime = System.nanoTime();
+		QUOTES.setOpaque(mQuotes, vBase + VOLUME, pVolume);
+		QUOTES.setOpaque(mQuotes, vBase + TIME, vTime);
+		
+		// Publish the new values.
+		QUOTES.setRelease(mQuotes, vBase + SEQUENCE, vSequence + 2);
+		
+		mFeed.fireTick(mFirstStock + pIndex, vTime, pPrice, pBid, pAsk, pVolume);
+	}
+}
@@ -23,23 +23,52 @@
 
 package org.macquarie.ticker;
 
-import javax.swing.JTextField;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Insets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JComponent;
+import javax.swing.Timer;
+import javax.swing.UIManager;
 
 /**
- * <p>The {@link StockTicker} widget class itself. This inherits from 
- * {@link JTextField}, because it really is a special type of text field 
- * which automatically updates itself.</p>
+ * <p>The {@link StockTicker} widget class itself. This is a component which
+ * displays a scrolling message made up of the latest prices of the stocks in 
+ * a {@link MarketFeed}.</p>
  * 
  * <p>It also implements the Runnable interface, so that we can run it in a 
  * thread which keep the ticker message moving. Look in the {@link TickerExample} 
- * class to see how we set this going in a thread of its own.</p>
+ * class to see how we set this going in a thread of its own. Alternatively,
+ * many tickers may share a single thread by being put on a {@link TickerBoard}.</p>
+ * 
+ * <p>The message is held in a {@link TickerMessage}, a circular buffer of
+ * characters, which lets us scroll the message without creating any new
+ * objects. We paint the message straight out of that buffer, rather than 
+ * handing a copy of it to a text field each time it changes. Since the 
+ * ticker thread changes the message while the event dispatch thread paints
+ * it, both of them lock the message while they use it.</p>
+ * 
+ * <p>Swing components must only ever be touched from the event dispatch 
+ * thread, so the ticker thread doesn't touch this component at all. It only
+ * advances the message, and counts each change in a <code>volatile</code>
+ * version number. Meanwhile a single Swing {@link Timer}, shared by every 
+ * ticker on the screen, fires once per display frame in the event dispatch
+ * thread. Each time it fires it repaints just those tickers whose version 
+ * has changed since they were last asked to repaint. (Not since they were
+ * last painted, since a ticker which is hidden behind another window may
+ * never actually be painted, and we mustn't keep asking it every frame.) 
+ * So however often the messages change, no ticker is painted more than 
+ * once a frame, and tickers which haven't moved cost next to nothing.</p>
  * 
  * @author Dominic Verity
  *
  */
 
 @SuppressWarnings("serial")
-public class StockTicker extends JTextField implements Runnable {
+public class StockTicker extends JComponent implements Runnable {
 
 	// Static data members (constants and class variables)
 	
@@ -48,12 +77,36 @@ public class StockTicker extends JTextField implements Runnable {
 	 * Making this smaller will increase the rate at which things
 	 * scroll past
 	 */
-	private static final long UPDATE_PAUSE = 100;
+	static final long UPDATE_PAUSE = 100;
 	
 	/**
 	 * Number of characters in the ticker message
 	 */
 	private static final int MESSAGE_LENGTH = 200;
+	
+	/**
+	 * Most characters needed for the price of a stock, and the punctuation
+	 * around it, in the ticker message.
+	 */
+	private static final int MAX_PRICE_LENGTH = 22;
+	
+	/**
+	 * Time between display frames, in milliseconds.
+	 */
+	private static final int FRAME_INTERVAL = 16;
+	
+	/**
+	 * The tickers which are currently on the screen. Only ever used in the
+	 * event dispatch thread.
+	 */
+	private static final List<StockTicker> SHOWING = new ArrayList<StockTicker>();
+	
+	/**
+	 * The timer which repaints the tickers on the screen once per frame. It 
+	 * only runs while there are some. Only ever used in the event dispatch 
+	 * thread.
+	 */
+	private static Timer sFrameTimer = null;
 
 	// Data members (instance variables)
 	
@@ -64,43 +117,68 @@ public class StockTicker extends JTextField implements Runnable {
 	private int mCurrentStock = 0;
 	
 	/**
-	 * A string buffer in which to store the currently displayed ticker message.
+	 * A circular buffer in which to store the currently displayed ticker message.
 	 */
-	private StringBuffer mStringBuffer = null;
+	private final TickerMessage mMessage;
 	
 	/**
 	 * The MarketFeed object from which this ticker sources its market information.
 	 */
 	private MarketFeed mFeed;
 	
+	/**
+	 * The number of times the message has been changed.
+	 */
+	private volatile long mVersion = 0;
+	
+	/**
+	 * The version of the message at the last time this ticker was asked to
+	 * repaint. Only ever used in the event dispatch thread.
+	 */
+	private long mRequestedVersion = -1;
+	
 	/**
 	 * Constructor. Creates a stock ticker component which reads its market
-	 * information from a given MarketFeed object. Initialises the text field and
-	 * an associated string buffer with stock price information.
+	 * information from a given MarketFeed object. Initialises the ticker 
+	 * message with stock price information.
 	 */
 	public StockTicker(MarketFeed pFeed) {
+		this(pFeed, 0);
+	}
+	
+	/**
+	 * Constructor. Creates a stock ticker component which reads its market
+	 * information from a given MarketFeed object, starting from a given
+	 * stock. This lets the tickers on a dashboard show different stocks.
+	 * 
+	 * @param pFeed the market feed to read prices from.
+	 * @param pFirstStock the number of the first stock to show.
+	 */
+	public StockTicker(MarketFeed pFeed, int pFirstStock) {
 		// Save supplied market feed object for future use.
 		mFeed = pFeed;
 		
-		// Create a string buffer to hold the current ticker message.
-		mStringBuffer = new StringBuffer(MESSAGE_LENGTH + 50);
+		// Create a buffer to hold the current ticker message, long enough
+		// to add the longest entry to a message which is one short of full.
+		int vLongestName = 0;
+		for (int i = 0; i < mFeed.getNumStocks(); i++)
+			vLongestName = Math.max(vLongestName, mFeed.getTickerName(i).length());
+		mMessage = new TickerMessage(MESSAGE_LENGTH + vLongestName + MAX_PRICE_LENGTH);
 		
 		// Initialise number of next stock to append to ticker message.
-		mCurrentStock = 0;
+		if (pFirstStock < 0 || pFirstStock >= mFeed.getNumStocks())
+			throw new IllegalArgumentException("No such stock: " + pFirstStock);
+		mCurrentStock = pFirstStock;
 		
 		// Add the information about as many stocks as possible to the
 		// ticker message.
-		while (mStringBuffer.length() < MESSAGE_LENGTH)
+		while (mMessage.length() < MESSAGE_LENGTH)
 			appendCurrentStock();
 		
-		// ... and set the displayed content of this text field to be this
-		// ticker message.
-		setText(mStringBuffer.toString());
-		
-		// Prevent the user from editing or focusing this text field.
-		setEditable(false);
+		// Look like the text field this used to be, but don't take the focus.
+		setFont(UIManager.getFont("TextField.font"));
+		setForeground(UIManager.getColor("TextField.foreground"));
 		setFocusable(false);
-		setBackground(null);
 	}
 
 	/**
@@ -108,9 +186,24 @@ public class StockTicker extends JTextField implements Runnable {
 	 * and update the next stock pointer.
 	 */
 	private void appendCurrentStock() {
-		mStringBuffer.append(mFeed.getTickerName(mCurrentStock)+":" + 
-				mFeed.getQuote(mCurrentStock)+" ");
-		mCurrentStock = (mCurrentStock + 1) % MarketFeed.NUM_STOCKS;
+		mMessage.append(mFeed.getTickerName(mCurrentStock));
+		mMessage.append(':');
+		mMessage.append(mFeed.getQuote(mCurrentStock));
+		mMessage.append(' ');
+		mCurrentStock = (mCurrentStock + 1) % mFeed.getNumStocks();
+	}
+	
+	/**
+	 * Scroll the ticker message along by one character, adding the next
+	 * stock's price to the end if it is getting short.
+	 */
+	void advance() {
+		synchronized (mMessage) {
+			mMessage.removeFirst();
+			if (mMessage.length() < MESSAGE_LENGTH) 
+				appendCurrentStock();
+			mVersion++;
+		}
 	}
 	
 	/**
@@ -123,14 +216,95 @@ public class StockTicker extends JTextField implements Runnable {
 			while (!Thread.interrupted()) {
 				Thread.sleep(UPDATE_PAUSE);
 			
-				mStringBuffer.deleteCharAt(0);	
-				if (mStringBuffer.length() < MESSAGE_LENGTH) 
-					appendCurrentStock();
-				setText(mStringBuffer.toString());
+				advance();
 			}	
 		} catch (InterruptedException eExn) {
 			// Nothing to do here, just fall through and exit this thread.
 		}
 		
 	}
+	
+	/**
+	 * Called when this ticker is put on the screen. Add it to the tickers
+	 * repainted by the frame timer, starting the timer if necessary.
+	 */
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		SHOWING.add(this);
+		if (sFrameTimer == null) {
+			sFrameTimer = new Timer(FRAME_INTERVAL, pEvent -> repaintChanged());
+			sFrameTimer.setCoalesce(true);
+		}
+		sFrameTimer.start();
+	}
+	
+	/**
+	 * Called when this ticker is taken off the screen. Stop repainting it,
+	 * and stop the frame timer if there are no tickers left.
+	 */
+	@Override
+	public void removeNotify() {
+		SHOWING.remove(this);
+		if (SHOWING.isEmpty())
+			sFrameTimer.stop();
+		super.removeNotify();
+	}
+	
+	/**
+	 * Repaint each of the tickers on the screen whose message has changed 
+	 * since it was last asked to repaint. Called by the frame timer.
+	 */
+	private static void repaintChanged() {
+		for (StockTicker vTicker : SHOWING) {
+			long vVersion = vTicker.mVersion;
+			if (vVersion != vTicker.mRequestedVersion) {
+				vTicker.mRequestedVersion = vVersion;
+				vTicker.repaint();
+			}
+		}
+	}
+	
+	/**
+	 * Make room for one line of text, as wide as the whole message.
+	 */
+	@Override
+	public Dimension getPreferredSize() {
+		if (isPreferredSizeSet())
+			return super.getPreferredSize();
+		FontMetrics vMetrics = getFontMetrics(getFont());
+		Insets vInsets = getInsets();
+		return new Dimension(
+				vInsets.left + vInsets.right + MESSAGE_LENGTH * vMetrics.charWidth('0'),
+				vInsets.top + vInsets.bottom + vMetrics.getHeight() + 4);
+	}
+	
+	/**
+	 * Draw the ticker message, directly out of its circular buffer. It lies
+	 * in at most two runs of characters, which we draw one after the other.
+	 */
+	@Override
+	protected void paintComponent(Graphics pGraphics) {
+		super.paintComponent(pGraphics);
+		
+		Insets vInsets = getInsets();
+		FontMetrics vMetrics = pGraphics.getFontMetrics(getFont());
+		int vX = vInsets.left + 2;
+		int vY = vInsets.top + (getHeight() - vInsets.top - vInsets.bottom 
+				- vMetrics.getHeight()) / 2 + vMetrics.getAscent();
+		pGraphics.setFont(getFont());
+		pGraphics.setColor(getForeground());
+		
+		synchronized (mMessage) {
+			char[] vChars = mMessage.getChars();
+			int vStart = mMessage.getStart();
+			int vLength = mMessage.length();
+			int vFirstRun = Math.min(vLength, vChars.length - vStart);
+			
+			pGraphics.drawChars(vChars, vStart, vFirstRun, vX, vY);
+			if (vLength > vFirstRun)
+				pGraphics.drawChars(vChars, 0, vLength - vFirstRun, 
+						vX + vMetrics.charsWidth(vChars, vStart, vFirstRun), vY);
+		}
+	}
 }
@@ -0,0 +1,162 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.ticker;
+
+/**
+ * <p>A hash table which maps the ticker names of a {@link MarketFeed}'s stocks
+ * to their numbers. The set of names is fixed when the table is built, so 
+ * we can use a very simple open addressing scheme. The table is an array of
+ * slots at least twice as long as the number of names, each slot holding
+ * either a stock number or nothing. A name is stored in the first free slot
+ * at or after the one picked out by its hash code, and is found again by 
+ * searching from that same slot until we either find it or find a free 
+ * slot. With the table at most half full, a search only has to look at one
+ * or two slots on average.</p>
+ *
+ * <p>Lookups accept any {@link CharSequence}, such as a {@link StringBuilder}
+ * or a {@link java.nio.CharBuffer} holding part of a message, and compare it
+ * character by character with the stored names. So a caller never has to 
+ * make a new {@link String} just to look a stock up.</p>
+ *
+ * <p>The table is never changed once it has been built, and it is safely 
+ * published by being stored in a final field of the {@link MarketFeed}, so
+ * any number of threads may use it at once.</p>
+ *
+ * @author mq-soft-tech
+ *
+ */
+final class SymbolTable {
+
+	// Data members (instance variables)
+
+	/**
+	 * The names being looked up, indexed by stock number.
+	 */
+	private final String[] mSymbols;
+
+	/**
+	 * The slots of the table. Each holds one more than the number of the stock
+	 * stored in it, or 0 if it is free.
+	 */
+	private final int[] mSlots;
+
+	/**
+	 * The hash code of the name of each stock, indexed by stock number. We 
+	 * compare these before comparing names, which saves us from looking at 
+	 * the characters of most of the names that we pass during a search.
+	 */
+	private final int[] mHashes;
+
+	/**
+	 * Mask used to convert a hash code into a slot number, always equal
+	 * to <code>mSlots.length - 1</code>.
+	 */
+	private final int mMask;
+
+	// Constructors
+
+	/**
+	 * Build a table for a given set of names.
+	 *
+	 * @param pSymbols the names to store, indexed by stock number. These must
+	 *        all be different.
+	 */
+	SymbolTable(String[] pSymbols) {
+		int vLength = 2;
+		while (vLength < 2 * pSymbols.length)
+			vLength <<= 1;
+
+		mSymbols = pSymbols;
+		mSlots = new int[vLength];
+		mHashes = new int[pSymbols.length];
+		mMask = vLength - 1;
+
+		for (int i = 0; i < pSymbols.length; i++) {
+			if (indexOf(pSymbols[i]) >= 0)
+				throw new IllegalArgumentException("Duplicate ticker name: " + pSymbols[i]);
+			int vHash = hash(pSymbols[i]);
+			int vSlot = vHash & mMask;
+			while (mSlots[vSlot] != 0)
+				vSlot = (vSlot + 1) & mMask;
+			mSlots[vSlot] = i + 1;
+			mHashes[i] = vHash;
+		}
+	}
+
+	// Methods
+
+	/**
+	 * Find the number of the stock with a given name.
+	 *
+	 * @param pSymbol the name to look for.
+	 * @return the number of the stock with that name, or -1 if there isn't one.
+	 */
+	int indexOf(CharSequence pSymbol) {
+		int vHash = hash(pSymbol);
+		int vSlot = vHash & mMask;
+		int vEntry;
+		while ((vEntry = mSlots[vSlot]) != 0) {
+			int vStockNo = vEntry - 1;
+			if (mHashes[vStockNo] == vHash && contentEquals(mSymbols[vStockNo], pSymbol))
+				return vStockNo;
+			vSlot = (vSlot + 1) & mMask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Compute the hash code of a name. This is the same as 
+	 * {@link String#hashCode()}, but works for any {@link CharSequence}, 
+	 * and then has its bits mixed so that names which differ only in their
+	 * last character don't land in neighbouring slots.
+	 *
+	 * @param pSymbol the name to hash.
+	 * @return its hash code.
+	 */
+	private static int hash(CharSequence pSymbol) {
+		int vHash = 0;
+		for (int i = 0; i < pSymbol.length(); i++)
+			vHash = 31 * vHash + pSymbol.charAt(i);
+		vHash *= 0x9E3779B9;
+		return vHash ^ (vHash >>> 16);
+	}
+
+	/**
+	 * Check whether a stored name has the same characters as a name being
+	 * looked up.
+	 *
+	 * @param pStored the stored name.
+	 * @param pSymbol the name being looked up.
+	 * @return true if the two have exactly the same characters.
+	 */
+	private static boolean contentEquals(String pStored, CharSequence pSymbol) {
+		int vLength = pStored.length();
+		if (pSymbol.length() != vLength)
+			return false;
+		for (int i = 0; i < vLength; i++)
+			if (pStored.charAt(i) != pSymbol.charAt(i))
+				return false;
+		return true;
+	}
+}
@@ -0,0 +1,257 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.ticker;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * <p>The settings for a {@link MarketFeed} which generates a reproducible
+ * stream of ticks at a steady, and possibly very high, rate. Such a feed
+ * is useful as a load source for testing and benchmarking anything which
+ * consumes its quotes.</p>
+ *
+ * <ul>
+ * <li><b>Seed.</b> Each shard draws all of its random numbers from a 
+ * {@link SplittableRandom} seeded from this seed and the shard's number. So
+ * two feeds made with the same seed, symbols and number of shards start with
+ * the same prices, and each of their shards makes exactly the same sequence
+ * of updates. (How those sequences interleave still depends upon how the
+ * shard threads are scheduled.)</li>
+ * <li><b>Rate.</b> The total number of ticks per second, across all shards.
+ * Rather than sleeping between ticks, which can't be done accurately for
+ * less than tens of microseconds, each shard works out when each tick is due
+ * and only parks when it gets well ahead of schedule. If it falls behind it
+ * catches up by making ticks back to back. A rate of zero means as fast as
+ * possible.</li>
+ * <li><b>Skew.</b> Real markets have a few very busy stocks and a long tail
+ * of quiet ones. Stock number <code>i</code> is updated in proportion to 
+ * <code>1 / (i + 1)<sup>skew</sup></code>, the so-called Zipf distribution.
+ * A skew of zero makes all stocks equally busy, and a skew of around one
+ * is typical of real markets.</li>
+ * <li><b>Bursts.</b> Optionally, for the first part of every burst period
+ * the rate is multiplied by a burst factor, to mimic the flurries of 
+ * activity seen at the open, the close and after news.</li>
+ * </ul>
+ *
+ * <p>Generating a tick never allocates any objects, so the feed doesn't
+ * make work for the garbage collector which would disturb whatever is 
+ * being measured.</p>
+ *
+ * @author mq-soft-tech
+ *
+ */
+public final class TickGenerator {
+
+	// Data members (instance variables)
+
+	/**
+	 * The seed from which each shard's random numbers are derived.
+	 */
+	private final long mSeed;
+
+	/**
+	 * The total number of ticks per second, or zero for as many as possible.
+	 */
+	private final double mTicksPerSecond;
+
+	/**
+	 * The Zipf exponent which determines how much busier the low numbered 
+	 * stocks are than the high numbered ones.
+	 */
+	private final double mSkew;
+
+	/**
+	 * The factor the rate is multiplied by during a burst.
+	 */
+	private final double mBurstFactor;
+
+	/**
+	 * The length of a burst period, in nanoseconds, or zero for no bursts.
+	 */
+	private final long mBurstPeriod;
+
+	/**
+	 * The length of the burst at the start of each burst period, in nanoseconds.
+	 */
+	private final long mBurstLength;
+
+	// Constructors
+
+	/**
+	 * Settings for a steady stream of ticks, without bursts.
+	 *
+	 * @param pSeed the seed for the feed's random numbers.
+	 * @param pTicksPerSecond the total number of ticks per second, or zero
+	 *        for as many as possible.
+	 * @param pSkew the Zipf exponent for the popularity of stocks, zero for
+	 *        all stocks to be equally popular.
+	 */
+	public TickGenerator(long pSeed, double pTicksPerSecond, double pSkew) {
+		this(pSeed, pTicksPerSecond, pSkew, 1.0, 0, 0);
+	}
+
+	/**
+	 * Settings for a stream of ticks with regular bursts.
+	 *
+	 * @param pSeed the seed for the feed's random numbers.
+	 * @param pTicksPerSecond the total number of ticks per second outside of
+	 *        bursts, or zero for as many as possible.
+	 * @param pSkew the Zipf exponent for the popularity of stocks, zero for
+	 *        all stocks to be equally popular.
+	 * @param pBurstFactor the factor the rate is multiplied by during a burst.
+	 * @param pBurstPeriod the time from the start of one burst to the start
+	 *        of the next, in nanoseconds, or zero for no bursts.
+	 * @param pBurstLength the length of each burst, in nanoseconds.
+	 */
+	public TickGenerator(long pSeed, double pTicksPerSecond, double pSkew,
+			double pBurstFactor, long pBurstPeriod, long pBurstLength) {
+		if (!(pTicksPerSecond >= 0) || !(pSkew >= 0) || !(pBurstFactor > 0))
+			throw new IllegalArgumentException("Rate, skew and burst factor must not be negative");
+		if (pBurstPeriod < 0 || pBurstLength < 0 || pBurstLength > pBurstPeriod)
+			throw new IllegalArgumentException("Burst length must lie between zero and the period");
+		mSeed = pSeed;
+		mTicksPerSecond = pTicksPerSecond;
+		mSkew = pSkew;
+		mBurstFactor = pBurstFactor;
+		mBurstPeriod = pBurstPeriod;
+		mBurstLength = pBurstLength;
+	}
+
+	// Methods
+
+	/**
+	 * @return the seed for the feed's random numbers.
+	 */
+	public long getSeed() {
+		return mSeed;
+	}
+
+	/**
+	 * @return the total number of ticks per second outside of bursts, or zero
+	 *         for as many as possible.
+	 */
+	public double getTicksPerSecond() {
+		return mTicksPerSecond;
+	}
+
+	/**
+	 * @return the Zipf exponent for the popularity of stocks.
+	 */
+	public double getSkew() {
+		return mSkew;
+	}
+
+	/**
+	 * Make the random number generator for a given shard.
+	 *
+	 * @param pShard the number of the shard.
+	 * @return a generator which always produces the same numbers for the
+	 *         same seed and shard.
+	 */
+	SplittableRandom randomFor(int pShard) {
+		return new SplittableRandom(mSeed + pShard * 0x9E3779B97F4A7C15L);
+	}
+
+	/**
+	 * Compute the relative popularity of a stock.
+	 *
+	 * @param pStockNo the number of the stock.
+	 * @return its weight in the Zipf distribution.
+	 */
+	private double weight(int pStockNo) {
+		return (mSkew == 0) ? 1.0 : Math.pow(pStockNo + 1, -mSkew);
+	}
+
+	/**
+	 * Compute the cumulative distribution used to choose which stock in a
+	 * shard to update. Entry <code>i</code> is the probability that one of
+	 * the first <code>i + 1</code> stocks in the shard is chosen, so a stock
+	 * can be picked by looking up where a uniform random number falls in 
+	 * the array (see {@link #pick(double[], double)}).
+	 *
+	 * @param pFirstStock the number of the first stock in the shard.
+	 * @param pNumStocks the number of stocks in the shard.
+	 * @return the cumulative distribution.
+	 */
+	double[] cumulativeWeights(int pFirstStock, int pNumStocks) {
+		double[] vCdf = new double[pNumStocks];
+		double vTotal = 0;
+		for (int i = 0; i < pNumStocks; i++)
+			vCdf[i] = (vTotal += weight(pFirstStock + i));
+		for (int i = 0; i < pNumStocks; i++)
+			vCdf[i] /= vTotal;
+		return vCdf;
+	}
+
+	/**
+	 * Choose a stock from a cumulative distribution.
+	 *
+	 * @param pCdf the distribution, made by {@link #cumulativeWeights(int, int)}.
+	 * @param pUniform a random number between 0 (inclusive) and 1 (exclusive).
+	 * @return the number, counting from the start of the shard, of the chosen stock.
+	 */
+	static int pick(double[] pCdf, double pUniform) {
+		int vIndex = Arrays.binarySearch(pCdf, pUniform);
+		if (vIndex < 0)
+			vIndex = -vIndex - 1;
+		return Math.min(vIndex, pCdf.length - 1);
+	}
+
+	/**
+	 * Work out the share of the total rate of ticks which a shard should make.
+	 *
+	 * @param pFirstStock the number of the first stock in the shard.
+	 * @param pNumStocks the number of stocks in the shard.
+	 * @param pTotalStocks the number of stocks in the whole market.
+	 * @return the shard's share of the ticks, between 0 and 1.
+	 */
+	double shareOf(int pFirstStock, int pNumStocks, int pTotalStocks) {
+		double vShard = 0, vTotal = 0;
+		for (int i = 0; i < pTotalStocks; i++) {
+			double vWeight = weight(i);
+			vTotal += vWeight;
+			if (pFirstStock <= i && i < pFirstStock + pNumStocks)
+				vShard += vWeight;
+		}
+		return vShard / vTotal;
+	}
+
+	/**
+	 * Work out the gap between a shard's ticks at a given time.
+	 *
+	 * @param pShare the shard's share of the ticks.
+	 * @param pElapsed the time since the shard started, in nanoseconds.
+	 * @return the gap in nanoseconds, or zero if the shard should make ticks
+	 *         as fast as possible.
+	 */
+	double intervalAt(double pShare, long pElapsed) {
+		if (mTicksPerSecond == 0)
+			return 0;
+		double vRate = mTicksPerSecond * pShare;
+		if (mBurstPeriod > 0 && pElapsed % mBurstPeriod < mBurstLength)
+			vRate *= mBurstFactor;
+		return 1e9 / vRate;
+	}
+}
@@ -0,0 +1,416 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.ticker;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>An append only journal of every tick made by a {@link MarketFeed}, 
+ * which lets us rebuild the state of the market after a restart or replay a
+ * trading session for testing (see {@link TickJournalReader}). Register a
+ * journal with {@link MarketFeed#addTickListener(TickListener)} to start
+ * recording.</p>
+ *
+ * <p>Each tick is stored as a fixed size record of {@link #RECORD_SIZE} 
+ * bytes, in little endian order:</p>
+ *
+ * <pre>
+ *  0  long  time of the update, from System.nanoTime()
+ *  8  long  total volume traded
+ * 16  long  price
+ * 24  long  bid
+ * 32  long  ask
+ * 40  int   stock number + 1
+ * 44  int   unused, so that every record starts on an 8 byte boundary
+ * </pre>
+ *
+ * <p>Prices are stored as <code>long</code>s, just as the feed holds them, so 
+ * that no price can ever be silently truncated on its way to the journal.</p>
+ *
+ * <p>The records are written into a series of <em>segment</em> files, 
+ * named <code>ticks-00000000.dat</code>, <code>ticks-00000001.dat</code>
+ * and so on, each of which holds a fixed number of records. Rather than
+ * calling <code>write()</code> for every tick, each segment is mapped into
+ * memory with a {@link MappedByteBuffer}, so storing a record is just a
+ * matter of storing into memory. The operating system writes the pages out
+ * to the file in its own time, and will do so even if our process crashes.
+ * So a journal can keep up with millions of ticks a second. Making and 
+ * mapping a segment file is slow, though, so as soon as the first record of
+ * each segment is claimed a background thread maps the segment after it. 
+ * That way the shard threads should never have to wait for a file.</p>
+ *
+ * <p>Several shard threads may record ticks at once. Each claims the next
+ * record by incrementing a counter, so no two threads ever write to the 
+ * same record and no locks are needed. The last field to be written is the
+ * stock number, which is stored with release semantics and is never zero
+ * in a complete record. So a reader which sees a non-zero stock number, 
+ * even one running while the journal is being written, is guaranteed to 
+ * see the rest of the record as well. (A thread which claims a record but
+ * is stopped before it writes it leaves a gap, which a reader will take to
+ * be the end of the journal.)</p>
+ *
+ * <p>To make sure that the journal is complete, stop the feed with 
+ * {@link MarketFeed#stop()} before calling {@link #close()}. Closing the 
+ * journal stops it accepting new ticks, then waits for any shard threads 
+ * which are part way through writing a record to finish, and only then asks
+ * the operating system to write everything out. So no half written record 
+ * is left behind. But a tick made after the journal is closed is simply 
+ * not recorded. Likewise, if a shard thread is interrupted (which is how 
+ * the feed stops them) while it is waiting for a segment to be mapped, the
+ * journal just stops recording, so the last few ticks made while the feed 
+ * was stopping may be lost.</p>
+ *
+ * <p>A journal is always started in a directory of its own. We refuse to
+ * start one in a directory which already holds segment files, rather than
+ * overwrite the ticks they record.</p>
+ *
+ * @author mq-soft-tech
+ *
+ */
+public class TickJournal implements TickListener, AutoCloseable {
+
+	// Static data members (constants)
+
+	/**
+	 * The size of each record, in bytes.
+	 */
+	public static final int RECORD_SIZE = 48;
+
+	/**
+	 * The offsets of the fields of a record.
+	 */
+	static final int TIME = 0, VOLUME = 8, PRICE = 16, BID = 24, ASK = 32, STOCK = 40;
+
+	/**
+	 * The number of records in each segment unless otherwise specified,
+	 * making segments of 48MB.
+	 */
+	public static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 20;
+
+	/**
+	 * The number of segments we keep mapped at once. Writers which have
+	 * claimed a record in a segment may still be writing to it after 
+	 * others have moved on to the next, so we keep a few of the most 
+	 * recent segments to hand.
+	 */
+	private static final int MAPPED_SEGMENTS = 4;
+
+	/**
+	 * Handle used to write the stock number of a record with release
+	 * semantics, and to read it with acquire semantics.
+	 */
+	static final VarHandle STOCK_FIELD =
+			MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+	// Data members (instance variables)
+
+	/**
+	 * The directory which holds the segment files.
+	 */
+	private final Path mDirectory;
+
+	/**
+	 * The number of records in each segment.
+	 */
+	private final int mRecordsPerSegment;
+
+	/**
+	 * The number of the next record to be claimed.
+	 */
+	private final AtomicLong mNextRecord = new AtomicLong();
+
+	/**
+	 * The most recently mapped segments, with segment <code>n</code> being
+	 * held at index <code>n % MAPPED_SEGMENTS</code>.
+	 */
+	private final AtomicReferenceArray<Segment> mSegments =
+			new AtomicReferenceArray<Segment>(MAPPED_SEGMENTS);
+
+	/**
+	 * Set once the journal has been closed, or has failed.
+	 */
+	private volatile boolean mClosed;
+
+	/**
+	 * The error which stopped the journal from recording, if any.
+	 */
+	private volatile IOException mFailure;
+
+	/**
+	 * The number of threads currently recording a tick, so that 
+	 * {@link #close()} can wait for them to finish.
+	 */
+	private final AtomicInteger mWriting = new AtomicInteger();
+
+	/**
+	 * The background thread which maps each segment ahead of time.
+	 */
+	private final ExecutorService mMapper = Executors.newSingleThreadExecutor(pTask -> {
+		Thread vThread = new Thread(pTask, "TickJournal-mapper");
+		vThread.setDaemon(true);
+		return vThread;
+	});
+
+	// Constructors
+
+	/**
+	 * Start a new journal with segments of the default size.
+	 *
+	 * @param pDirectory the directory to write the segment files into. This 
+	 *        must not already hold any segment files.
+	 * @throws FileAlreadyExistsException if the directory already holds a
+	 *         journal.
+	 * @throws IOException if the directory or first segment can't be made.
+	 */
+	public TickJournal(Path pDirectory) throws IOException {
+		this(pDirectory, DEFAULT_RECORDS_PER_SEGMENT);
+	}
+
+	/**
+	 * Start a new journal.
+	 *
+	 * @param pDirectory the directory to write the segment files into. This 
+	 *        must not already hold any segment files.
+	 * @param pRecordsPerSegment the number of records in each segment.
+	 * @throws FileAlreadyExistsException if the directory already holds a
+	 *         journal.
+	 * @throws IOException if the directory or first segment can't be made.
+	 */
+	public TickJournal(Path pDirectory, int pRecordsPerSegment) throws IOException {
+		if (pRecordsPerSegment < 1 || pRecordsPerSegment > Integer.MAX_VALUE / RECORD_SIZE)
+			throw new IllegalArgumentException("Segment size out of range: " + pRecordsPerSegment);
+		mDirectory = Files.createDirectories(pDirectory);
+		mRecordsPerSegment = pRecordsPerSegment;
+		
+		try (DirectoryStream<Path> vOld = Files.newDirectoryStream(mDirectory, "ticks-*.dat")) {
+			for (Path vFile : vOld)
+				throw new FileAlreadyExistsException(vFile.toString(), null, 
+						"Directory already holds a tick journal");
+		}
+		map(0);
+		map(1);
+	}
+
+	// Methods
+
+	/**
+	 * Work out the name of a segment file.
+	 *
+	 * @param pDirectory the directory holding the journal.
+	 * @param pSegment the number of the segment.
+	 * @return the path of that segment's file.
+	 */
+	static Path segmentFile(Path pDirectory, long pSegment) {
+		return pDirectory.resolve(String.format("ticks-%08d.dat", pSegment));
+	}
+
+	/**
+	 * Record a tick. Called from the shard thread which made it.
+	 */
+	@Override
+	public void onTick(int pStockNo, long pTime, long pPrice, long pBid, long pAsk, long pVolume) {
+		// Count ourselves in before checking whether the journal is closed, so
+		// that close() either sees us and waits, or we see that it is closed.
+		mWriting.incrementAndGet();
+		try {
+			if (mClosed)
+				return;
+			
+			long vRecord = mNextRecord.getAndIncrement();
+			long vSegment = vRecord / mRecordsPerSegment;
+			int vIndex = (int) (vRecord % mRecordsPerSegment);
+			MappedByteBuffer vBuffer = segment(vSegment);
+			if (vBuffer == null)
+				return;
+			if (vIndex == 0)
+				mapAhead(vSegment + 1);
+			int vOffset = vIndex * RECORD_SIZE;
+			
+			vBuffer.putLong(vOffset + TIME, pTime);
+			vBuffer.putLong(vOffset + VOLUME, pVolume);
+			vBuffer.putLong(vOffset + PRICE, pPrice);
+			vBuffer.putLong(vOffset + BID, pBid);
+			vBuffer.putLong(vOffset + ASK, pAsk);
+			STOCK_FIELD.setRelease(vBuffer, vOffset + STOCK, pStockNo + 1);
+		} finally {
+			mWriting.decrementAndGet();
+		}
+	}
+
+	/**
+	 * @return the number of ticks recorded so far.
+	 */
+	public long getRecordCount() {
+		return mNextRecord.get();
+	}
+
+	/**
+	 * Stop recording, wait for any ticks which are part way through being 
+	 * recorded, and then ask the operating system to write everything 
+	 * recorded so far out to disk. Ticks which arrive after this are ignored,
+	 * so stop the feed first if the journal should hold every tick it made.
+	 * 
+	 * @throws IOException if the journal stopped recording early because
+	 *         a segment file couldn't be made.
+	 */
+	@Override
+	public void close() throws IOException {
+		mClosed = true;
+		while (mWriting.get() != 0)
+			Thread.yield();
+		mMapper.shutdown();
+		
+		synchronized (this) {
+			for (int i = 0; i < MAPPED_SEGMENTS; i++) {
+				Segment vSegment = mSegments.get(i);
+				if (vSegment != null)
+					vSegment.mBuffer.force();
+			}
+		}
+		if (mFailure != null)
+			throw mFailure;
+	}
+
+	/**
+	 * Find the buffer for a given segment. This is normally already mapped,
+	 * because as soon as a segment is first used the background thread is 
+	 * asked to map the one after it (see {@link #mapAhead(long)}). Only if a
+	 * shard thread gets to a segment before that has been done does it have
+	 * to map the segment itself.
+	 * 
+	 * <p>If the segment can't be mapped we can't record anything more, so we
+	 * close the journal and keep the error to be reported by {@link #close()},
+	 * rather than throwing it at the shard thread. The exception is when the
+	 * shard thread has been interrupted, which makes {@link FileChannel} 
+	 * refuse to do anything. That is how {@link MarketFeed#stop()} stops the
+	 * shards, so we just stop recording without reporting a failure.</p>
+	 *
+	 * @param pSegment the number of the segment.
+	 * @return the buffer holding that segment, or null if it couldn't be mapped.
+	 */
+	private MappedByteBuffer segment(long pSegment) {
+		Segment vSegment = mSegments.get((int) (pSegment % MAPPED_SEGMENTS));
+		if (vSegment != null && vSegment.mNumber == pSegment)
+			return vSegment.mBuffer;
+		
+		synchronized (this) {
+			try {
+				return map(pSegment);
+			} catch (ClosedByInterruptException pExn) {
+				mClosed = true;
+				return null;
+			} catch (IOException pExn) {
+				if (mFailure == null)
+					mFailure = pExn;
+				mClosed = true;
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Ask the background thread to map a segment, ready for when the shard
+	 * threads get to it. Failing to do so is not an error, since the segment
+	 * will be mapped by the first shard thread to need it instead.
+	 *
+	 * @param pSegment the number of the segment.
+	 */
+	private void mapAhead(long pSegment) {
+		try {
+			mMapper.execute(() -> {
+				synchronized (this) {
+					try {
+						map(pSegment);
+					} catch (IOException pExn) {
+						// Never mind, we'll try again when we get there.
+					}
+				}
+			});
+		} catch (RejectedExecutionException pExn) {
+			// The journal has been closed.
+		}
+	}
+
+	/**
+	 * Make and map the file for a segment, if that hasn't already been done.
+	 * Must only be called with this object's lock held, or from the constructor.
+	 *
+	 * @param pSegment the number of the segment.
+	 * @return the buffer holding that segment.
+	 * @throws IOException if the segment file can't be made or mapped.
+	 */
+	private MappedByteBuffer map(long pSegment) throws IOException {
+		int vSlot = (int) (pSegment % MAPPED_SEGMENTS);
+		Segment vSegment = mSegments.get(vSlot);
+		if (vSegment != null && vSegment.mNumber == pSegment)
+			return vSegment.mBuffer;
+		
+		try (FileChannel vChannel = FileChannel.open(segmentFile(mDirectory, pSegment),
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer vBuffer = vChannel.map(FileChannel.MapMode.READ_WRITE, 0, 
+					(long) mRecordsPerSegment * RECORD_SIZE);
+			vBuffer.order(ByteOrder.LITTLE_ENDIAN);
+			mSegments.set(vSlot, new Segment(pSegment, vBuffer));
+			return vBuffer;
+		}
+	}
+
+	/**
+	 * A mapped segment, together with its number.
+	 */
+	private static final class Segment {
+
+		/**
+		 * The number of this segment.
+		 */
+		final long mNumber;
+
+		/**
+		 * The buffer the segment is mapped into.
+		 */
+		final MappedByteBuffer mBuffer;
+
+		Segment(long pNumber, MappedByteBuffer pBuffer) {
+			mNumber = pNumber;
+			mBuffer = pBuffer;
+		}
+	}
+}
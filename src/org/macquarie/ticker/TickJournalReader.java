@@ -0,0 +1,165 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.ticker;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>Reads back the ticks recorded by a {@link TickJournal}, and replays 
+ * them to a {@link TickListener} or a {@link MarketFeed}.</p>
+ *
+ * <p>Each segment file is mapped into memory and its records are decoded 
+ * straight out of the mapped buffer, so replaying never copies the journal
+ * into arrays or allocates any objects per tick. Replay stops at the first
+ * record whose stock number is zero, which marks the end of what has been
+ * written.</p>
+ *
+ * <p>Ticks may be replayed as fast as possible, or at the speed they were
+ * recorded. In the latter case we work out when each tick is due from the 
+ * time recorded with it, and park until then if it is far enough ahead.</p>
+ *
+ * @author mq-soft-tech
+ *
+ */
+public class TickJournalReader {
+
+	// Static data members (constants)
+
+	/**
+	 * How far ahead, in nanoseconds, the next tick must be before we park 
+	 * rather than replaying it straight away.
+	 */
+	private static final long MIN_PARK_NANOS = 50_000;
+
+	// Data members (instance variables)
+
+	/**
+	 * The directory which holds the segment files.
+	 */
+	private final Path mDirectory;
+
+	// Constructors
+
+	/**
+	 * Make a reader for a journal.
+	 *
+	 * @param pDirectory the directory holding the journal's segment files.
+	 */
+	public TickJournalReader(Path pDirectory) {
+		mDirectory = pDirectory;
+	}
+
+	// Methods
+
+	/**
+	 * Replay the journal into a market feed, overwriting its quotes. The 
+	 * feed must not have been started, and must trade at least as many 
+	 * stocks as the one which was recorded. The feed's own listeners are
+	 * told about each tick, just as if it had been made by a shard thread.
+	 *
+	 * @param pFeed the market feed to replay into.
+	 * @param pRecordedSpeed true to replay the ticks at the speed they were
+	 *        recorded, false to replay them as fast as possible.
+	 * @return the number of ticks replayed.
+	 * @throws IllegalStateException if the feed has been started, or another
+	 *         thread is already replaying into it.
+	 * @throws IOException if a segment file can't be read.
+	 * @throws InterruptedException if we are interrupted while replaying.
+	 */
+	public long replay(MarketFeed pFeed, boolean pRecordedSpeed) 
+			throws IOException, InterruptedException {
+		pFeed.beginReplay();
+		try {
+			return replay(pFeed::replayTick, pRecordedSpeed);
+		} finally {
+			pFeed.endReplay();
+		}
+	}
+
+	/**
+	 * Replay the journal to a listener. The listener must not be receiving 
+	 * ticks from anywhere else at the same time, such as from a running 
+	 * {@link MarketFeed} (see {@link TickListener}).
+	 *
+	 * @param pListener the listener to pass each tick to.
+	 * @param pRecordedSpeed true to replay the ticks at the speed they were
+	 *        recorded, false to replay them as fast as possible.
+	 * @return the number of ticks replayed.
+	 * @throws IOException if a segment file can't be read.
+	 * @throws InterruptedException if we are interrupted while replaying.
+	 */
+	public long replay(TickListener pListener, boolean pRecordedSpeed) 
+			throws IOException, InterruptedException {
+		long vCount = 0;
+		long vFirstTime = 0;
+		long vStart = 0;
+		
+		for (long vSegment = 0; ; vSegment++) {
+			Path vFile = TickJournal.segmentFile(mDirectory, vSegment);
+			if (!Files.exists(vFile))
+				return vCount;
+			
+			MappedByteBuffer vBuffer;
+			try (FileChannel vChannel = FileChannel.open(vFile)) {
+				vBuffer = vChannel.map(FileChannel.MapMode.READ_ONLY, 0, vChannel.size());
+			}
+			vBuffer.order(ByteOrder.LITTLE_ENDIAN);
+			
+			int vEnd = vBuffer.capacity() - TickJournal.RECORD_SIZE;
+			for (int vOffset = 0; vOffset <= vEnd; vOffset += TickJournal.RECORD_SIZE) {
+				int vStock = (int) TickJournal.STOCK_FIELD.getAcquire(vBuffer, 
+						vOffset + TickJournal.STOCK);
+				if (vStock == 0)
+					return vCount;
+				
+				long vTime = vBuffer.getLong(vOffset + TickJournal.TIME);
+				if (pRecordedSpeed) {
+					if (vCount == 0) {
+						vFirstTime = vTime;
+						vStart = System.nanoTime();
+					}
+					long vAhead;
+					while ((vAhead = (vTime - vFirstTime) - (System.nanoTime() - vStart)) 
+							>= MIN_PARK_NANOS && !Thread.currentThread().isInterrupted())
+						LockSupport.parkNanos(vAhead);
+				}
+				if (Thread.interrupted())
+					throw new InterruptedException();
+				
+				pListener.onTick(vStock - 1, vTime,
+						vBuffer.getLong(vOffset + TickJournal.PRICE),
+						vBuffer.getLong(vOffset + TickJournal.BID),
+						vBuffer.getLong(vOffset + TickJournal.ASK),
+						vBuffer.getLong(vOffset + TickJournal.VOLUME));
+				vCount++;
+			}
+		}
+	}
+}
@@ -0,0 +1,60 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.ticker;
+
+/**
+ * <p>An object which wants to be told about every price update made by a
+ * {@link MarketFeed}. Register one by calling 
+ * {@link MarketFeed#addTickListener(TickListener)}.</p>
+ *
+ * <p>The {@link #onTick} method is called directly from the thread which
+ * made the update, straight after the new quote has been published. So it 
+ * must be quick, and it must never block, or it will hold up every other 
+ * update in that thread's shard. It may also be called from several shard 
+ * threads at once, but only ever from one thread at a time for any given
+ * stock: the shard thread which owns it, or else the thread replaying a 
+ * journal into the feed (see {@link TickJournalReader}), which the feed 
+ * only allows before its shard threads have been started. A listener may
+ * rely on this, so never feed a listener from two threads at once yourself.
+ * Listeners which need to do any real work should hand 
+ * the update on to another thread, as the subscriptions made by
+ * {@link MarketFeed#subscribe(java.util.concurrent.Flow.Subscriber)} do.</p>
+ *
+ * @author mq-soft-tech
+ *
+ */
+public interface TickListener {
+
+	/**
+	 * Called each time the quote for a stock is updated.
+	 *
+	 * @param pStockNo the number of the stock which was updated.
+	 * @param pTime the value of {@link System#nanoTime()} at the update.
+	 * @param pPrice the price traded at.
+	 * @param pBid the new bid price.
+	 * @param pAsk the new ask price.
+	 * @param pVolume the total number of shares traded so far.
+	 */
+	void onTick(int pStockNo, long pTime, long pPrice, long pBid, long pAsk, long pVolume);
+}
@@ -0,0 +1,254 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.ticker;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A benchmark which measures the cost of the whole ticker pipeline, from
+ * a {@link MarketFeed} through to painted {@link StockTicker}s, without 
+ * needing a display. So it can be run on a headless server, or as part of 
+ * an automated build, to catch changes which make the tickers slower.</p>
+ *
+ * <p>A market feed is driven by a {@link TickGenerator} at a chosen rate,
+ * with a {@link QuoteAnalytics} attached to keep rolling statistics for 
+ * every stock, as a trading screen would. Meanwhile the main thread plays
+ * the part of the event dispatch thread and a {@link TickerBoard}'s 
+ * scheduler at once. Once per frame it advances every ticker on a board and
+ * then paints each of them into an off screen image. We report:</p>
+ *
+ * <ul>
+ * <li>the number of ticks per second the feed actually managed to generate
+ * while the tickers were being read and painted. This is not the number the
+ * tickers displayed: each ticker only shows the latest quote for a stock 
+ * when its turn comes round, however many ticks were made in between;</li>
+ * <li>percentiles of the time taken to build each frame;</li>
+ * <li>the average number of bytes allocated while building each frame, as 
+ * counted by the JVM for the building thread. Since scrolling a ticker 
+ * doesn't allocate anything, this is mostly down to Java2D; and</li>
+ * <li>the statistics gathered for the first stock, as a check that the
+ * analytics kept up.</li>
+ * </ul>
+ *
+ * <p>Usage: <code>TickerBenchmark [ticks per second [tickers [seconds [stocks [shards]]]]]</code>.
+ * A rate of zero runs the feed as fast as it will go. Every other argument
+ * must be at least one.</p>
+ *
+ * @author mq-soft-tech
+ *
+ */
+public class TickerBenchmark {
+
+	// Static data members (constants)
+
+	/**
+	 * Default number of ticks per second made by the feed.
+	 */
+	private static final double DEFAULT_TICKS_PER_SECOND = 1_000_000;
+
+	/**
+	 * Default number of tickers.
+	 */
+	private static final int DEFAULT_TICKERS = 50;
+
+	/**
+	 * Default length of the measured run, in seconds.
+	 */
+	private static final int DEFAULT_SECONDS = 10;
+
+	/**
+	 * Default number of stocks traded.
+	 */
+	private static final int DEFAULT_STOCKS = 5000;
+
+	/**
+	 * Default number of shards in the feed.
+	 */
+	private static final int DEFAULT_SHARDS = 2;
+
+	/**
+	 * Time between frames, in nanoseconds.
+	 */
+	private static final long FRAME_NANOS = 16_000_000;
+
+	/**
+	 * Number of frames built before we start measuring, so that we aren't
+	 * timing the JIT compiler.
+	 */
+	private static final int WARMUP_FRAMES = 120;
+
+	/**
+	 * The size of the off screen image each ticker is painted into.
+	 */
+	private static final int WIDTH = 1600, HEIGHT = 24;
+
+	/**
+	 * The fraction of the way each stock's moving average moves towards
+	 * each new price.
+	 */
+	private static final double EMA_ALPHA = 0.1;
+
+	/**
+	 * The length of the window over which the highest and lowest price of
+	 * each stock is tracked, in nanoseconds.
+	 */
+	private static final long WINDOW_NANOS = 1_000_000_000L;
+
+	/**
+	 * Message printed when the command line arguments don't make sense.
+	 */
+	private static final String USAGE = 
+			"Usage: TickerBenchmark [ticks per second [tickers [seconds [stocks [shards]]]]]";
+
+	// Methods
+
+	/**
+	 * The main entry point for this benchmark.
+	 *
+	 * @param pArgs command line arguments, see the class description.
+	 */
+	public static void main(String[] pArgs) throws InterruptedException {
+		System.setProperty("java.awt.headless", "true");
+		
+		double vRate;
+		int vNumTickers, vSeconds, vStocks, vShards;
+		try {
+			vRate = (pArgs.length > 0) ? 
+					Double.parseDouble(pArgs[0]) : DEFAULT_TICKS_PER_SECOND;
+			vNumTickers = (pArgs.length > 1) ? Integer.parseInt(pArgs[1]) : DEFAULT_TICKERS;
+			vSeconds = (pArgs.length > 2) ? Integer.parseInt(pArgs[2]) : DEFAULT_SECONDS;
+			vStocks = (pArgs.length > 3) ? Integer.parseInt(pArgs[3]) : DEFAULT_STOCKS;
+			vShards = (pArgs.length > 4) ? Integer.parseInt(pArgs[4]) : DEFAULT_SHARDS;
+		} catch (NumberFormatException pExn) {
+			System.err.println(USAGE);
+			return;
+		}
+		if (pArgs.length > 5 || !(vRate >= 0) || Double.isInfinite(vRate) || vNumTickers < 1 
+				|| vSeconds < 1 || vStocks < 1 || vShards < 1) {
+			System.err.println(USAGE);
+			return;
+		}
+		
+		// Set up the feed, and count the ticks it makes.
+		MarketFeed vFeed = new MarketFeed(MarketFeed.syntheticSymbols(vStocks), vShards,
+				new TickGenerator(1, vRate, 1.0));
+		LongAdder vTicks = new LongAdder();
+		vFeed.addTickListener((pStockNo, pTime, pPrice, pBid, pAsk, pVolume) -> vTicks.increment());
+		
+		// Keep rolling statistics for every stock, in the shard threads.
+		QuoteAnalytics vAnalytics = new QuoteAnalytics(vStocks, EMA_ALPHA, WINDOW_NANOS);
+		vFeed.addTickListener(vAnalytics);
+		
+		// Set up a board of tickers, each starting at a different stock.
+		TickerBoard vBoard = new TickerBoard();
+		StockTicker[] vTickers = new StockTicker[vNumTickers];
+		for (int i = 0; i < vNumTickers; i++) {
+			vTickers[i] = new StockTicker(vFeed, (int) ((long) i * vStocks / vNumTickers));
+			vTickers[i].setSize(WIDTH, HEIGHT);
+			vBoard.add(vTickers[i]);
+		}
+		BufferedImage vImage = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		Graphics2D vGraphics = vImage.createGraphics();
+		
+		com.sun.management.ThreadMXBean vThreadBean = 
+				(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long vThreadId = Thread.currentThread().getId();
+		
+		int vFrames = (int) (vSeconds * 1_000_000_000L / FRAME_NANOS);
+		long[] vLatencies = new long[vFrames];
+		long vAllocated = 0;
+		long vStartTicks = 0;
+		long vStartTime = 0;
+		
+		vFeed.start();
+		long vNextFrame = System.nanoTime();
+		for (int vFrame = -WARMUP_FRAMES; vFrame < vFrames; vFrame++) {
+			if (vFrame == 0) {
+				vStartTicks = vTicks.sum();
+				vStartTime = System.nanoTime();
+			}
+			
+			long vBytesBefore = vThreadBean.getThreadAllocatedBytes(vThreadId);
+			long vBefore = System.nanoTime();
+			
+			vBoard.advanceAll();
+			for (StockTicker vTicker : vTickers)
+				vTicker.paint(vGraphics);
+			
+			long vAfter = System.nanoTime();
+			long vBytesAfter = vThreadBean.getThreadAllocatedBytes(vThreadId);
+			if (vFrame >= 0) {
+				vLatencies[vFrame] = vAfter - vBefore;
+				vAllocated += vBytesAfter - vBytesBefore;
+			}
+			
+			// Wait for the next frame, unless we have fallen behind.
+			vNextFrame += FRAME_NANOS;
+			long vWait = vNextFrame - System.nanoTime();
+			if (vWait > 0)
+				Thread.sleep(vWait / 1_000_000, (int) (vWait % 1_000_000));
+			else
+				vNextFrame = System.nanoTime();
+		}
+		long vElapsed = System.nanoTime() - vStartTime;
+		long vMeasuredTicks = vTicks.sum() - vStartTicks;
+		vFeed.stop();
+		vGraphics.dispose();
+		
+		Arrays.sort(vLatencies);
+		System.out.printf("stocks %d, shards %d, tickers %d, target %.0f ticks/sec%n",
+				vStocks, vShards, vNumTickers, vRate);
+		System.out.printf("ticks generated    %14.0f ticks/sec%n", vMeasuredTicks * 1e9 / vElapsed);
+		System.out.printf("frames built       %14d%n", vFrames);
+		if (vFrames == 0)
+			return;
+		System.out.printf("frame build p50    %14.1f us%n", percentile(vLatencies, 0.50) / 1e3);
+		System.out.printf("frame build p90    %14.1f us%n", percentile(vLatencies, 0.90) / 1e3);
+		System.out.printf("frame build p99    %14.1f us%n", percentile(vLatencies, 0.99) / 1e3);
+		System.out.printf("frame build max    %14.1f us%n", vLatencies[vFrames - 1] / 1e3);
+		System.out.printf("allocated/frame    %14.0f bytes%n", (double) vAllocated / vFrames);
+		System.out.printf("%s: %d ticks, ema %.1f, vwap %.1f, low %d, high %d%n",
+				vFeed.getTickerName(0), vAnalytics.getTickCount(0), vAnalytics.getEma(0),
+				vAnalytics.getVwap(0), vAnalytics.getWindowLow(0), vAnalytics.getWindowHigh(0));
+	}
+
+	/**
+	 * Find a percentile of a sorted array of measurements.
+	 *
+	 * @param pSorted the measurements, in increasing order.
+	 * @param pFraction the percentile wanted, as a fraction between 0 and 1.
+	 * @return the measurement at that percentile, or zero if there are no
+	 *         measurements.
+	 */
+	private static long percentile(long[] pSorted, double pFraction) {
+		if (pSorted.length == 0)
+			return 0;
+		int vIndex = (int) Math.ceil(pFraction * pSorted.length) - 1;
+		return pSorted[Math.max(0, Math.min(vIndex, pSorted.length - 1))];
+	}
+}
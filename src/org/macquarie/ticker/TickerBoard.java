@@ -0,0 +1,168 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.ticker;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>A board of {@link StockTicker}s which are all kept moving by a single
+ * thread.</p>
+ *
+ * <p>Each ticker can run in a thread of its own (see {@link StockTicker#run()}),
+ * but a dashboard of fifty tickers would then need fifty threads, each of 
+ * which spends nearly all of its time asleep, and each of which wakes up at
+ * a slightly different moment. Instead, a board uses one 
+ * {@link ScheduledExecutorService} which wakes up once per update period 
+ * and advances every ticker on the board in one go. So one thread serves
+ * any number of tickers, and they all move together.</p>
+ *
+ * <p>Tickers may be added to and removed from the board at any time, from
+ * any thread. The list of tickers is a {@link CopyOnWriteArrayList}, so the
+ * scheduler thread can run through it without taking a lock.</p>
+ *
+ * @author mq-soft-tech
+ *
+ */
+public class TickerBoard {
+
+	// Data members (instance variables)
+
+	/**
+	 * The tickers on this board.
+	 */
+	private final CopyOnWriteArrayList<StockTicker> mTickers = 
+			new CopyOnWriteArrayList<StockTicker>();
+
+	/**
+	 * The time between updates, in milliseconds.
+	 */
+	private final long mUpdatePause;
+
+	/**
+	 * The scheduler which advances the tickers, or null if the board isn't running.
+	 */
+	private ScheduledExecutorService mScheduler = null;
+
+	/**
+	 * The periodic task which advances the tickers, or null if the board isn't running.
+	 */
+	private ScheduledFuture<?> mTask = null;
+
+	// Constructors
+
+	/**
+	 * Make an empty board, which updates its tickers at the same rate as a
+	 * ticker running in its own thread.
+	 */
+	public TickerBoard() {
+		this(StockTicker.UPDATE_PAUSE);
+	}
+
+	/**
+	 * Make an empty board.
+	 *
+	 * @param pUpdatePause the time between updates, in milliseconds.
+	 */
+	public TickerBoard(long pUpdatePause) {
+		if (pUpdatePause <= 0)
+			throw new IllegalArgumentException("Update pause must be positive: " + pUpdatePause);
+		mUpdatePause = pUpdatePause;
+	}
+
+	// Methods
+
+	/**
+	 * Add a ticker to this board. It must not also be running in a thread
+	 * of its own.
+	 *
+	 * @param pTicker the ticker to add.
+	 */
+	public void add(StockTicker pTicker) {
+		mTickers.addIfAbsent(pTicker);
+	}
+
+	/**
+	 * Take a ticker off this board.
+	 *
+	 * @param pTicker the ticker to remove.
+	 */
+	public void remove(StockTicker pTicker) {
+		mTickers.remove(pTicker);
+	}
+
+	/**
+	 * @return the number of tickers on this board.
+	 */
+	public int size() {
+		return mTickers.size();
+	}
+
+	/**
+	 * Start advancing the tickers on this board, if it isn't already running.
+	 */
+	public synchronized void start() {
+		if (mScheduler != null)
+			return;
+		mScheduler = Executors.newSingleThreadScheduledExecutor(pTask -> {
+			Thread vThread = new Thread(pTask, "TickerBoard");
+			vThread.setDaemon(true);
+			return vThread;
+		});
+		mTask = mScheduler.scheduleAtFixedRate(this::advanceAll, 
+				mUpdatePause, mUpdatePause, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stop advancing the tickers on this board.
+	 */
+	public synchronized void stop() {
+		if (mScheduler == null)
+			return;
+		mTask.cancel(false);
+		mScheduler.shutdown();
+		mScheduler = null;
+		mTask = null;
+	}
+
+	/**
+	 * Advance every ticker on the board by one step. This is the task run
+	 * by the scheduler once per update period. If this task ever threw an
+	 * exception the scheduler would quietly stop running it, freezing every
+	 * ticker on the board. So we catch and report any exception thrown by a 
+	 * ticker, and carry on with the rest.
+	 */
+	void advanceAll() {
+		for (StockTicker vTicker : mTickers) {
+			try {
+				vTicker.advance();
+			} catch (RuntimeException pExn) {
+				pExn.printStackTrace();
+			}
+		}
+	}
+}
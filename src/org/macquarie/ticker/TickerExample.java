@@ -23,11 +23,15 @@
 
 package org.macquarie.ticker;
 import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.awt.BorderLayout;
 import java.awt.Dimension;
+import java.awt.GridLayout;
 
 import javax.swing.JPanel;
 import javax.swing.JFrame;
+import javax.swing.JScrollPane;
 
 /**
  * <p>An example application which uses our stock ticker. We create a 
@@ -35,6 +39,14 @@ import javax.swing.JFrame;
  * both running in threads of their own. Notice that we use different thread 
  * creation methodologies in each case - as described in the week 8 notes.</p>
  * 
+ * <p>Usage: <code>TickerExample [symbolFile [shards [tickers]]]</code>. By 
+ * default the market trades a handful of stocks in a single shard, but a 
+ * larger universe of stocks may be read from a file (see 
+ * {@link MarketFeed#loadSymbols}) and divided between several shard threads.
+ * If more than one ticker is asked for, we show a dashboard of tickers, each
+ * starting at a different stock, which are all kept moving by a single
+ * {@link TickerBoard} rather than each having a thread of its own.</p>
+ * 
  * @author Dominic Verity
  *
  */
@@ -69,6 +81,26 @@ public class TickerExample extends JFrame {
 	 * our stock ticker with stock price quotes.
 	 */
 	private MarketFeed mFeed = null;
+	
+	/**
+	 * The ticker names of the stocks to trade, or null to use the default market.
+	 */
+	private String[] mSymbols = null;
+	
+	/**
+	 * The number of shards to divide the market's stocks between.
+	 */
+	private int mShards = 1;
+	
+	/**
+	 * The number of tickers to show.
+	 */
+	private int mNumTickers = 1;
+	
+	/**
+	 * The board which moves the tickers, if there is more than one of them.
+	 */
+	private TickerBoard mBoard = null;
 
 	/**
 	 * The main entry point to our application - simply creates the application
@@ -78,9 +110,16 @@ public class TickerExample extends JFrame {
 	 * method - you'll find out more about this in week 9.
 	 * 
 	 * @param pArgs array of command line arguments.
+	 * @throws IOException if the symbol file can't be read.
 	 */
-	public static void main(String[] pArgs) {
+	public static void main(String[] pArgs) throws IOException {
 		mApplication = new TickerExample();
+		if (pArgs.length > 0)
+			mApplication.mSymbols = MarketFeed.loadSymbols(Paths.get(pArgs[0]));
+		if (pArgs.length > 1)
+			mApplication.mShards = Integer.parseInt(pArgs[1]);
+		if (pArgs.length > 2)
+			mApplication.mNumTickers = Integer.parseInt(pArgs[2]);
 		
 		SwingUtilities.invokeLater(new Runnable() {
 			public void run() {
@@ -100,11 +139,18 @@ public class TickerExample extends JFrame {
 		setVisible(true);
 		
 		// Now set the market feed running.
-		// The MarketFeed class inherits from Thread so this is just a 
-		// matter of calling start().
+		// Each of the market feed's shards inherits from Thread, so its 
+		// start() method just calls start() on each of them.
 		mFeed.start();
 		
-		// Also set the stock ticker widget running. 
+		// If we have a whole board of tickers, a single scheduler thread 
+		// moves all of them, so we just start the board.
+		if (mBoard != null) {
+			mBoard.start();
+			return;
+		}
+		
+		// Otherwise set the stock ticker widget running. 
 		// The StockTicker class doesn't inherit from Thread, instead
 		// it implements Runnable - so to get it running we must first
 		// create a new Thread object, passing our Runnable StockTicker object
@@ -124,7 +170,13 @@ public class TickerExample extends JFrame {
 		setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 		
 		// Create a market feed object
-		mFeed = new MarketFeed();
+		mFeed = (mSymbols == null) ? new MarketFeed() : new MarketFeed(mSymbols, mShards);
+		
+		// If we want more than one ticker, make a dashboard of them instead.
+		if (mNumTickers > 1) {
+			setupBoard();
+			return;
+		}
 		
 		// Create a stock ticker widget object.
 		// By passing the market feed object constructed above as the
@@ -145,4 +197,24 @@ public class TickerExample extends JFrame {
 		// ... specify a preferred main window size.
 		jContentPane.setPreferredSize(new Dimension(300,200));
 	}
+	
+	/**
+	 * Create a dashboard of tickers, each starting at a different stock,
+	 * and put them on a {@link TickerBoard} which will keep them all moving.
+	 */
+	private void setupBoard() {
+		mBoard = new TickerBoard();
+		JPanel vTickers = new JPanel(new GridLayout(mNumTickers, 1));
+		for (int i = 0; i < mNumTickers; i++) {
+			StockTicker vTicker = new StockTicker(mFeed, 
+					(int) ((long) i * mFeed.getNumStocks() / mNumTickers));
+			vTickers.add(vTicker);
+			mBoard.add(vTicker);
+		}
+		
+		jContentPane = (JPanel)getContentPane();
+		jContentPane.setLayout(new BorderLayout());
+		jContentPane.add(new JScrollPane(vTickers), BorderLayout.CENTER);
+		jContentPane.setPreferredSize(new Dimension(600,400));
+	}
 }
@@ -0,0 +1,173 @@
+/**
+ * This file is part of a project entitled ThreadSafety which is provided as
+ * sample code for the following Macquarie University unit of study:
+ * 
+ * COMP2000 "Object Oriented Programming Practices"
+ * 
+ * Copyright (c) 2026 Macquarie University.
+ * 
+ * ThreadSafety is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * ThreadSafety is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadSafety. (See files COPYING and COPYING.LESSER.) If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+
+package org.macquarie.ticker;
+
+/**
+ * <p>The text of a {@link StockTicker}'s scrolling message, held in a
+ * circular buffer of characters.</p>
+ *
+ * <p>Scrolling the message means removing a character from the front and,
+ * every so often, adding a stock's name and price to the back. If the 
+ * message were held in a {@link StringBuffer}, as it used to be, removing
+ * the first character would shift every other character down one place,
+ * and adding a price would build several temporary {@link String}s. Here
+ * the message lives in a fixed array whose length is a power of two, and 
+ * two counters mark where it starts and ends. Removing a character just 
+ * moves the start counter along, and adding one stores it at the end and 
+ * moves the end counter along, so both take the same time however long the
+ * message is. Prices are formatted digit by digit straight into the array.
+ * So scrolling the message never creates any objects at all.</p>
+ *
+ * <p>The characters of the message lie in at most two runs in the array: 
+ * from the start to the end of the array, and then from the beginning of the
+ * array onwards. A painter can draw those runs directly out of the array 
+ * (see {@link #getChars()}, {@link #getStart()} and {@link #length()}),
+ * without copying them anywhere first.</p>
+ *
+ * <p>This class is not thread safe. See {@link StockTicker} for how it is
+ * shared between the ticker's thread and the event dispatch thread.</p>
+ *
+ * @author mq-soft-tech
+ *
+ */
+final class TickerMessage {
+
+	// Data members (instance variables)
+
+	/**
+	 * The circular array of characters.
+	 */
+	private final char[] mChars;
+
+	/**
+	 * Mask used to convert a counter into an index into <code>mChars</code>.
+	 */
+	private final int mMask;
+
+	/**
+	 * The number of characters ever removed from the front of the message.
+	 */
+	private long mHead;
+
+	/**
+	 * The number of characters ever added to the back of the message.
+	 */
+	private long mTail;
+
+	/**
+	 * Scratch space in which to lay out the digits of a number, which come 
+	 * out backwards. Long enough for any <code>long</code>.
+	 */
+	private final char[] mDigits = new char[20];
+
+	// Constructors
+
+	/**
+	 * Make an empty message.
+	 *
+	 * @param pCapacity the most characters the message will ever hold. This
+	 *        is rounded up to the next power of two.
+	 */
+	TickerMessage(int pCapacity) {
+		int vLength = 1;
+		while (vLength < pCapacity)
+			vLength <<= 1;
+		mChars = new char[vLength];
+		mMask = vLength - 1;
+	}
+
+	// Methods
+
+	/**
+	 * @return the number of characters in the message.
+	 */
+	int length() {
+		return (int) (mTail - mHead);
+	}
+
+	/**
+	 * @return the array holding the message. The message starts at index
+	 *         {@link #getStart()} and may wrap around to the beginning.
+	 */
+	char[] getChars() {
+		return mChars;
+	}
+
+	/**
+	 * @return the index in {@link #getChars()} of the first character of the message.
+	 */
+	int getStart() {
+		return (int) mHead & mMask;
+	}
+
+	/**
+	 * Remove the first character of the message, if there is one.
+	 */
+	void removeFirst() {
+		if (mHead < mTail)
+			mHead++;
+	}
+
+	/**
+	 * Add a character to the end of the message.
+	 *
+	 * @param pChar the character to add.
+	 */
+	void append(char pChar) {
+		if (mTail - mHead > mMask)
+			throw new IllegalStateException("Ticker message is full");
+		mChars[(int) mTail++ & mMask] = pChar;
+	}
+
+	/**
+	 * Add the characters of a string to the end of the message.
+	 *
+	 * @param pText the characters to add.
+	 */
+	void append(CharSequence pText) {
+		for (int i = 0; i < pText.length(); i++)
+			append(pText.charAt(i));
+	}
+
+	/**
+	 * Add a number, in decimal, to the end of the message.
+	 *
+	 * @param pValue the number to add.
+	 */
+	void append(long pValue) {
+		// Work with the negative of the value, since every long can be
+		// negated to give a value which is zero or less, but not vice versa.
+		long vRest = (pValue > 0) ? -pValue : pValue;
+		int vCount = 0;
+		do {
+			mDigits[vCount++] = (char) ('0' - (vRest % 10));
+			vRest /= 10;
+		} while (vRest != 0);
+		
+		if (pValue < 0)
+			append('-');
+		while (vCount > 0)
+			append(mDigits[--vCount]);
+	}
+}